@@ -1,6 +1,7 @@
 package edu.uiowa.cs.warp;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.PriorityQueue;
@@ -13,6 +14,21 @@ public class Activation extends SchedulableObject implements Comparable<Activati
 	private ArrayList<ScheduleTime> additionalScheduleTimes;
 
 	private Set<String> conflicts; // nodes with conflicts
+	/*
+	 * Node ids of the conflicts, so conflictExists is an AND of a few words.
+	 * null when a conflict was added by name only; conflictExists then 
+	 * intersects the sets.
+	 */
+	private BitSet conflictMask;
+	/*
+	 * The shortest period, earliest deadline and highest priority of 
+	 * the edges. They do not change once the edges are known, so they are
+	 * found on the first update after an edge is added.
+	 */
+	private int edgePeriod;
+	private int edgeDeadline;
+	private int edgePriority;
+	private boolean edgeParametersKnown;
 	
 
 	Activation (String name){
@@ -21,10 +37,11 @@ public class Activation extends SchedulableObject implements Comparable<Activati
 		this.edges = new ArrayList<Edge>();
 		this.coordinators = new ArrayList<String>();
 		this.conflicts = new HashSet<String>();
+		this.conflictMask = new BitSet();
 		this.additionalScheduleTimes = new ArrayList<ScheduleTime>();
 	}
 	
-	Activation (Activation elem, Integer time){
+	Activation (Activation elem, int time){
 		super(elem, time);
 		this.edges = new ArrayList<Edge>();
 		this.edges.addAll(elem.getEdges());
@@ -33,8 +50,14 @@ public class Activation extends SchedulableObject implements Comparable<Activati
 		// conflicts = new Set<String>();
 		this.conflicts = new HashSet<String>();
 		this.conflicts.addAll(elem.getConflicts());
+		var elemMask = elem.getConflictMask();
+		this.conflictMask = (elemMask != null) ? (BitSet) elemMask.clone() : null;
 		this.additionalScheduleTimes = new ArrayList<ScheduleTime>();
 		this.additionalScheduleTimes.addAll(elem.getAdditionalScheduleTimes());
+		this.edgePeriod = elem.edgePeriod; // same edges, so same parameters
+		this.edgeDeadline = elem.edgeDeadline;
+		this.edgePriority = elem.edgePriority;
+		this.edgeParametersKnown = elem.edgeParametersKnown;
 	}
 	
 	@Override 
@@ -86,10 +109,12 @@ public class Activation extends SchedulableObject implements Comparable<Activati
 	
 	public void addEdges(ArrayList<Edge> edges) {
 		this.edges.addAll(edges);
+		this.edgeParametersKnown = false;
 	}
 	
 	public void addEdge(Edge edge) {
 		this.edges.add(edge);
+		this.edgeParametersKnown = false;
 	}
 	
 	public ArrayList<Edge> getEdges() {
@@ -101,7 +126,7 @@ public class Activation extends SchedulableObject implements Comparable<Activati
 	 * 
 	 * @param additionalOffset
 	 */
-	public void increaseEdgePhases(Integer additionalOffset) {
+	public void increaseEdgePhases(int additionalOffset) {
 		if (additionalOffset > 0) { // make sure increase is needed
 			for (Edge edge: this.edges) {
 				var oldPhase = edge.getPhase();
@@ -122,28 +147,27 @@ public class Activation extends SchedulableObject implements Comparable<Activati
 	 * edge priority with the earliest release time.
 	 * Thus, it can change dynamically. <br>
 	 */
-	public void updatePriorityAndRelease(Integer currentTime) {
+	public void updatePriorityAndRelease(int currentTime) {
 		var lastUpdateTime = getLastUpdateTime();
 		if (currentTime >= lastUpdateTime) {
+			/* release the edges, keeping the first edge with the earliest 
+			 * release time and highest priority, which is the edge at the
+			 * head of getEdgesByReleaseTime()
+			 */
+			Edge firstEdge = null;
 			for(Edge edge: edges) {
 				edge.setNextReleaseTime(currentTime);
+				if (firstEdge == null || releaseTimeOrder(edge, firstEdge) < 0) {
+					firstEdge = edge;
+				}
 			}
-			
-			/* get the edges with earliest release time and 
-			 * highest priority ==> get head of the queue just built
-			 */
-			var edgesByReleaseTime = getEdgesByReleaseTime();
-			var firstEdge = edgesByReleaseTime.element();
 			setPhase(firstEdge.getPhase()); 
-			var edgesByPeriod = getEdgesByPeriod();
-			firstEdge = edgesByPeriod.element();
-			setPeriod(firstEdge.getPeriod()); // shortest period 
-			var edgesByDeadline = getEdgesByDeadline();
-			firstEdge = edgesByDeadline.element();
-			setDeadline(firstEdge.getDeadline()); // earliest deadline
-			var edgesByPrioriy = getEdgesByPriority();
-			firstEdge = edgesByPrioriy.element();
-			setPriority(firstEdge.getPriority());
+			if (!edgeParametersKnown) {
+				updateEdgeParameters();
+			}
+			setPeriod(edgePeriod); // shortest period 
+			setDeadline(edgeDeadline); // earliest deadline
+			setPriority(edgePriority);
 			
 			/* With the partition scheduling parameters set to match  
 			 * the highest priority edge with respect to the parameter, 
@@ -155,6 +179,35 @@ public class Activation extends SchedulableObject implements Comparable<Activati
 		}
 	}
 	
+	/* the order of ReleaseTimeComparator */
+	private static int releaseTimeOrder(Edge edge1, Edge edge2) {
+		var result = edge1.releaseTimeComparison(edge2);
+		if (result == 0) {
+			result = edge1.priorityComparison(edge2);
+		}
+		return result;
+	}
+	
+	/**
+	 * Find the shortest period, earliest deadline and highest
+	 * priority of the edges, i.e., the heads of getEdgesByPeriod(),
+	 * getEdgesByDeadline() and getEdgesByPriority().
+	 */
+	private void updateEdgeParameters() {
+		var period = Integer.MAX_VALUE;
+		var deadline = Integer.MAX_VALUE;
+		var priority = Integer.MAX_VALUE;
+		for (Edge edge: edges) {
+			period = Math.min(period, edge.getPeriod());
+			deadline = Math.min(deadline, edge.getDeadline());
+			priority = Math.min(priority, edge.getPriority());
+		}
+		edgeDeadline = deadline;
+		edgePriority = priority;
+		edgePeriod = period;
+		edgeParametersKnown = true;
+	}
+	
 	/**
 	 * @return the conflicts
 	 */
@@ -162,19 +215,53 @@ public class Activation extends SchedulableObject implements Comparable<Activati
 		return conflicts;
 	}
 
+	/**
+	 * @return the node ids of the conflicts, or null if they are only known by name
+	 */
+	public BitSet getConflictMask() {
+		return conflictMask;
+	}
+
 	/**
 	 * @param conflicts the conflicts to set
 	 */
 	public void setConflicts(Set<String> conflicts) {
 		this.conflicts = conflicts;
+		this.conflictMask = null;
+	}
+
+	/**
+	 * @param conflicts the conflicts to set
+	 * @param conflictMask the node ids of conflicts, or null if not known
+	 */
+	public void setConflicts(Set<String> conflicts, BitSet conflictMask) {
+		this.conflicts = conflicts;
+		this.conflictMask = conflictMask;
 	}
 
 	public void addConflict(String name) {
     	conflicts.add(name);
+    	conflictMask = null;
     }
 	
 	public void addConflicts(Set<String> conflicts) {
 		this.conflicts.addAll(conflicts);
+		this.conflictMask = null;
+	}
+	
+	/**
+	 * Add conflicts, ORing their node ids into the conflict mask.
+	 * 
+	 * @param conflicts the conflicts to add
+	 * @param conflictMask the node ids of conflicts, or null if not known
+	 */
+	public void addConflicts(Set<String> conflicts, BitSet conflictMask) {
+		this.conflicts.addAll(conflicts);
+		if (this.conflictMask != null && conflictMask != null) {
+			this.conflictMask.or(conflictMask);
+		} else {
+			this.conflictMask = null;
+		}
 	}
 	
 	public void addCoordinator(String coordinator) {
@@ -203,6 +290,34 @@ public class Activation extends SchedulableObject implements Comparable<Activati
 		return this.additionalScheduleTimes;
 	}
 	
+	/**
+	 * @return true if this activation executes in slices, i.e., it
+	 * has additional schedule times
+	 */
+	public Boolean isPreempted() {
+		return !additionalScheduleTimes.isEmpty();
+	}
+	
+	/**
+	 * getRemainingExecutionTime returns the number of time slots this
+	 * activation executes from its start time on: the slice
+	 * [startTime, endTime] plus every additional slice that starts 
+	 * after it. Each slice of a preempted activation is a separate
+	 * entry, so this locates the slice within the whole execution.
+	 * 
+	 * @return remaining execution time
+	 */
+	public int getRemainingExecutionTime() {
+		var startTime = getStartTime();
+		var result = getEndTime() - startTime + 1;
+		for (ScheduleTime scheduleTime: additionalScheduleTimes) {
+			if (scheduleTime.getStartTime() > startTime) {
+				result += scheduleTime.getEndTime() - scheduleTime.getStartTime() + 1;
+			}
+		}
+		return result;
+	}
+	
 	/**
 	 * getNextScheduleTime returns the next entry in the additional
 	 * schedule time array list whose start time is greater than the input
@@ -304,7 +419,7 @@ public class Activation extends SchedulableObject implements Comparable<Activati
 		return nextEndTime;
 	}
 	
-	public Integer getNumEdges() {
+	public int getNumEdges() {
 		return edges.size();
 	}
 	
@@ -314,6 +429,11 @@ public class Activation extends SchedulableObject implements Comparable<Activati
 	}
 	
 	public Boolean conflictExists(Activation obj) {
+		var objConflictMask = obj.getConflictMask();
+		if (conflictMask != null && objConflictMask != null) {
+			/* both sets are known by node id */
+			return conflictMask.intersects(objConflictMask);
+		}
 		Boolean result = false;
 		/* create a copy of this.conflicts and obj.conflicts
 		 * and then check the intersection of the two 
@@ -334,7 +454,7 @@ public class Activation extends SchedulableObject implements Comparable<Activati
 	public Boolean canCombine(Activation a2) {
 		Boolean result = false;
 		/* make sure a2 is not null */
-		if (a2 != null) {
+		if (a2 != null && !isPreempted() && !a2.isPreempted()) {
 			var newEntryCoordinator = a2.getCoordinators().get(0);
 			if (getCoordinators().contains(newEntryCoordinator)) {
 				/* The (first) coordinator of the newEntry
@@ -347,20 +467,30 @@ public class Activation extends SchedulableObject implements Comparable<Activati
 		return result;
 	}
 	
+	/**
+	 * sharesCoordinator returns true if the (first) coordinator of a2
+	 * is a coordinator of this activation, so the two cannot execute
+	 * in the same time slot on different channels. Unlike canCombine, 
+	 * it also holds for preempted activations.
+	 */
+	public Boolean sharesCoordinator(Activation a2) {
+		return a2 != null && getCoordinators().contains(a2.getCoordinators().get(0));
+	}
+	
 	/*
 	 * Returns the maximum number of transmissions
 	 * needed on any link in activation to ensure e2e 
 	 * reliability is met.
 	 */
-	public Integer getDelta() {
-		Integer maxTxPerLink = 0;
-		for (Edge edge: getEdges()) {
-			maxTxPerLink = Math.max(maxTxPerLink, edge.getNumTx());
+	public int getDelta() {
+		int maxTxPerLink = 0;
+		for (int i = 0; i < edges.size(); i++) {
+			maxTxPerLink = Math.max(maxTxPerLink, edges.get(i).getNumTx());
 		}
 		return maxTxPerLink;
 	}
 
-	public Integer getExecutionDuration() {
+	public int getExecutionDuration() {
 		/* Each edge requires delta time units. However, assuming 
 		 * the WARP pipeline scheduling approach, the activation only
 		 * executes for Delta + (numEdges - 1) time units, because
@@ -370,7 +500,7 @@ public class Activation extends SchedulableObject implements Comparable<Activati
 		return getDelta() + (getNumEdges() - 1);
 	}
 
-	public Integer getCombinedExecutionDuration(Activation a2) {
+	public int getCombinedExecutionDuration(Activation a2) {
 		/* Each edge requires delta time units. However, assuming 
 		 * the WARP pipeline scheduling approach, the activation only
 		 * executes for Delta + (numEdges - 1) time units, because
@@ -0,0 +1,96 @@
+package edu.uiowa.cs.warp;
+
+/**
+ * BatchSummary is a comma separated table of the programs built for the workload files of a
+ * batch: one row per file and scheduler, with whether the program meets the deadlines and the
+ * end-to-end reliability of the flows and the worst latency of any flow instance. A file that
+ * could not be scheduled gets a single row that says so.
+ *
+ */
+public class BatchSummary {
+
+	private static final String SEPARATOR = ",";
+	private static final String FAILED = "FAILED";
+
+	private Description summary;
+
+	/**
+	 * Constructor creates a summary with only the header row.
+	 */
+	BatchSummary() {
+		summary = new Description();
+		summary.add(row("File", "Workload", "Scheduler", "Channels", "Length", "Deadlines met",
+				"Deadline misses", "Reliabilities met", "Channel conflicts", "Max latency",
+				"Unknown latencies"));
+	}
+
+	/**
+	 * Add a row built by programRow or failureRow.
+	 *
+	 * @param row the row to add
+	 */
+	public void add(String row) {
+		summary.add(row);
+	}
+
+	/**
+	 * Builds the row for the program of warp. The latency and reliability of the program are
+	 * analyzed to build it, so it is best built by the thread that built warp.
+	 *
+	 * @param file the workload file warp was built for
+	 * @param warp the system built by one of the schedulers
+	 * @return the row for warp
+	 */
+	public static String programRow(String file, WarpInterface warp) {
+		var program = warp.toProgram();
+		var latency = warp.toLatencyAnalysis();
+		latency.latencyReport();
+		return row(file, warp.getName(), warp.getSchedulerName(),
+				String.valueOf(warp.getNumChannels()),
+				String.valueOf(program.getSchedule().size()),
+				String.valueOf(warp.deadlinesMet()),
+				String.valueOf(program.deadlineMisses().size()),
+				String.valueOf(warp.reliabilitiesMet()),
+				String.valueOf(warp.toChannelAnalysis().isChannelConflict()),
+				String.valueOf(latency.getMaxLatency()),
+				String.valueOf(latency.getNumUnknownLatencies()));
+	}
+
+	/**
+	 * Builds the row for a file that could not be read or scheduled.
+	 *
+	 * @param file the workload file that failed
+	 * @return the row for file
+	 */
+	public static String failureRow(String file) {
+		return row(file, "", FAILED, "", "", "", "", "", "", "", "");
+	}
+
+	private static String row(String... columns) {
+		var row = new StringBuilder();
+		for (int i = 0; i < columns.length; i++) {
+			if (i > 0) {
+				row.append(SEPARATOR);
+			}
+			row.append(quote(columns[i]));
+		}
+		return row.append("\n").toString();
+	}
+
+	/* quote a column that would otherwise be split or misread */
+	private static String quote(String column) {
+		if (column.contains(SEPARATOR) || column.contains("\"") || column.contains("\n")) {
+			return "\"" + column.replace("\"", "\"\"") + "\"";
+		}
+		return column;
+	}
+
+	public Description toDescription() {
+		return summary;
+	}
+
+	@Override
+	public String toString() {
+		return summary.toString();
+	}
+}
@@ -1,78 +1,179 @@
 package edu.uiowa.cs.warp;
 
 
-import java.util.ArrayList;
 import java.util.HashSet;
 
 /**
+ * Channels keeps the set of channels available in each time slot of a program. Each set is a
+ * bitmask (bit i set when channel i is available), so sets are copied and searched without
+ * allocating. ASSUMES channels range from 0 to nChannels-1, with at most MAX_CHANNELS channels.
+ *
  * @author sgoddard
  * @version 1.4
  *
  */
 public class Channels {
 
+  /**
+   * The largest number of channels a bitmask can hold.
+   */
+  public static final int MAX_CHANNELS = Long.SIZE;
 
-  private class ChannelSet extends HashSet<String> {
-    private static final long serialVersionUID = 6725256944325470867L;
-
-    // default constructor
-    private ChannelSet() {
-      super();
-    }
-
-    private ChannelSet(Integer nChannels) {
-      super();
-      for (int i = 0; i < nChannels; i++) { // ASSUMES channels range from 0 to nChannels-1
-        this.add(String.valueOf(i));
-      }
-    }
-  }
-
+  /**
+   * Returned by nextAvailableChannel when no channel is available.
+   */
+  public static final int NO_CHANNEL = -1;
 
   Integer nChannels; // size of the full set of channels
   Boolean verbose;
-  ArrayList<ChannelSet> channelsAvailable; // ArrayList to hold channels available in each time slot
+  private final long allChannels; // bitmask with all nChannels channels available
+  private final String[] channelNames; // channel i as a String, for getChannelSet
+  private long[] channelsAvailable; // bitmask of channels available in each time slot
+  private int nTimeSlots;
 
   Channels(Integer nChannels, Boolean verbose) {
+    if (nChannels > MAX_CHANNELS) {
+      System.err.printf("\n\tERROR: at most %d channels are supported, not %d.\n", MAX_CHANNELS,
+          nChannels);
+      nChannels = MAX_CHANNELS;
+    }
     this.nChannels = nChannels;
     this.verbose = verbose;
-    this.channelsAvailable = new ArrayList<ChannelSet>();
+    this.allChannels = (nChannels == MAX_CHANNELS) ? -1L : (1L << nChannels) - 1;
+    this.channelNames = new String[nChannels];
+    for (int i = 0; i < nChannels; i++) {
+      channelNames[i] = String.valueOf(i);
+    }
+    this.channelsAvailable = new long[16];
+    this.nTimeSlots = 0;
   }
 
+  /**
+   * @return a copy of the channels available in timeSlot, as channel names
+   */
   public HashSet<String> getChannelSet(Integer timeSlot) {
     /* get the channel set for this timeSlot */
-    HashSet<String> channelSet = new HashSet<String>(channelsAvailable.get(timeSlot));
+    HashSet<String> channelSet = new HashSet<String>();
+    var channels = getAvailableChannels(timeSlot);
+    while (channels != 0) {
+      var channel = Long.numberOfTrailingZeros(channels);
+      channelSet.add(channelNames[channel]);
+      channels &= channels - 1; // clear the lowest channel
+    }
     return channelSet;
   }
 
+  /**
+   * @return the bitmask of channels available in timeSlot
+   */
+  public long getAvailableChannels(int timeSlot) {
+    checkTimeSlot(timeSlot);
+    return channelsAvailable[timeSlot];
+  }
+
   public void addNewChannelSet() {
-    var channels = new ChannelSet(nChannels);
-    channelsAvailable.add(channels);
+    if (nTimeSlots == channelsAvailable.length) {
+      var larger = new long[2 * nTimeSlots];
+      System.arraycopy(channelsAvailable, 0, larger, 0, nTimeSlots);
+      channelsAvailable = larger;
+    }
+    channelsAvailable[nTimeSlots++] = allChannels;
   }
 
 
   public Boolean isEmpty(int timeSlot) {
-    ChannelSet channelSet = channelsAvailable.get(timeSlot); // get the channel set for this
-                                                             // timeSlot
-    return channelSet.isEmpty(); // returns true channel set is empty and false if not
+    return getAvailableChannels(timeSlot) == 0; // returns true channel set is empty and false if not
   }
 
   public Boolean removeChannel(int timeSlot, String channel) {
-    Boolean result;
-    ChannelSet channels = channelsAvailable.get(timeSlot);
-    result = channels.remove(channel);
+    return removeChannel(timeSlot, toChannel(channel));
+  }
+
+  /**
+   * Remove channel from the channels available in timeSlot.
+   *
+   * @return true if the channel was available
+   */
+  public Boolean removeChannel(int timeSlot, int channel) {
+    var channels = getAvailableChannels(timeSlot);
+    var result = contains(channels, channel);
+    channelsAvailable[timeSlot] = without(channels, channel);
     return result;
   }
 
   public Boolean addChannel(int timeSlot, String channel) {
-    Boolean result;
-    ChannelSet channels = channelsAvailable.get(timeSlot); // get a pointer to the channel set
-    result = channels.add(channel); // remove the channel, returning the result
-    return result;
+    return addChannel(timeSlot, toChannel(channel));
+  }
+
+  /**
+   * Add channel to the channels available in timeSlot.
+   *
+   * @return true if the channel was not already available
+   */
+  public Boolean addChannel(int timeSlot, int channel) {
+    var channels = getAvailableChannels(timeSlot);
+    if (channel < 0 || channel >= nChannels || contains(channels, channel)) {
+      return false;
+    }
+    channelsAvailable[timeSlot] = channels | (1L << channel);
+    return true;
+  }
+
+  /**
+   * Find the first channel in channels, searching up from channel and wrapping around to 0.
+   *
+   * @param channels a bitmask of channels
+   * @param channel the channel to start the search from
+   * @return the channel found, or NO_CHANNEL if channels is empty
+   */
+  public int nextAvailableChannel(long channels, int channel) {
+    if (channels == 0) {
+      return NO_CHANNEL;
+    }
+    if (channel > 0 && channel < MAX_CHANNELS) {
+      var atOrAbove = channels & (-1L << channel);
+      if (atOrAbove != 0) {
+        return Long.numberOfTrailingZeros(atOrAbove);
+      }
+    }
+    return Long.numberOfTrailingZeros(channels); // wrap around to the lowest channel
+  }
+
+  /**
+   * @return channels with channel removed; channels outside 0..MAX_CHANNELS-1 (e.g., the
+   *         channel of a sleep) are ignored
+   */
+  public static long without(long channels, int channel) {
+    if (channel < 0 || channel >= MAX_CHANNELS) {
+      return channels;
+    }
+    return channels & ~(1L << channel);
+  }
+
+  /**
+   * @return true if channel is in channels
+   */
+  public static boolean contains(long channels, int channel) {
+    return channel >= 0 && channel < MAX_CHANNELS && (channels & (1L << channel)) != 0;
   }
 
   public Integer getNumChannels() {
     return nChannels;
   }
 
+  private void checkTimeSlot(int timeSlot) {
+    if (timeSlot < 0 || timeSlot >= nTimeSlots) {
+      throw new IndexOutOfBoundsException(
+          String.format("Index %d out of bounds for length %d", timeSlot, nTimeSlots));
+    }
+  }
+
+  private int toChannel(String channel) {
+    try {
+      return Integer.parseInt(channel);
+    } catch (NumberFormatException e) {
+      return NO_CHANNEL; // not a channel, e.g., UNKNOWN
+    }
+  }
+
 }
@@ -1,18 +1,21 @@
 package edu.uiowa.cs.warp;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.regex.Pattern;
+
+import edu.uiowa.cs.warp.Instruction.Action;
+import edu.uiowa.cs.warp.Instruction.Guard;
 
 public class CodeFragment {
 	
 	
-	private static final String SLEEP = "sleep";
 	ArrayList<Edge> edges;
 	String coordinator;
-	ArrayList<String> codeFragment;
+	ArrayList<Instruction> codeFragment;
 	Integer delta;
 	Integer channel;
+	HashMap<String, Integer> nodeIndexMap; // node name to program column
 	
 	/**
 	 * Constructor generates a SLEEP instruction for the
@@ -23,8 +26,9 @@ public class CodeFragment {
 		this.channel = 0;
 		this.edges = null;
 		this.coordinator = null;
-		this.codeFragment = new ArrayList<String>();
-		this.codeFragment.add(SLEEP);
+		this.nodeIndexMap = null;
+		this.codeFragment = new ArrayList<Instruction>();
+		this.codeFragment.add(sleep());
 	}
 	
 	/**
@@ -38,14 +42,17 @@ public class CodeFragment {
 	 * @param edges
 	 * @param coordinators
 	 * @param channel
+	 * @param nodeIndexMap maps node names to their program column
 	 */
 	CodeFragment(Integer delta, ArrayList<Edge> edges,
-			ArrayList<String> coordinators, Integer channel) {
+			ArrayList<String> coordinators, Integer channel,
+			HashMap<String, Integer> nodeIndexMap) {
 		this.delta = delta;
 		this.channel = channel;
 		this.edges = edges;
 		this.coordinator = coordinators.get(0);
-		this.codeFragment = new ArrayList<String>();
+		this.nodeIndexMap = nodeIndexMap;
+		this.codeFragment = new ArrayList<Instruction>();
 		if (multipleCoordinators(coordinators)) {
 			reportIfDifferentCoordinators(coordinators);
 		}	
@@ -62,7 +69,7 @@ public class CodeFragment {
 	/**
 	 * @return the codeFragment
 	 */
-	public ArrayList<String> instructions() {
+	public ArrayList<Instruction> instructions() {
 		return codeFragment;
 	}
 
@@ -83,7 +90,7 @@ public class CodeFragment {
 		 * delta + #edges -1
 		 */
 		var codeLength = delta + size -1;
-		var basicInstructions = new ArrayList<String>();
+		var basicInstructions = new ArrayList<Action>();
 		/* create basic instructions for each edge 
 		 * and initial receiver set for each instruction
 		 * */
@@ -97,7 +104,7 @@ public class CodeFragment {
 		}
 		/* start building code fragments */
 		
-		codeFragment.add(basicInstructions.get(0));
+		codeFragment.add(Instruction.of(basicInstructions.get(0)));
 		
 		/* when size < delta, we need to repeat the
 		 * middle stage delta - size times
@@ -109,12 +116,11 @@ public class CodeFragment {
 		
 		/* build the initial code fragment */
 		Integer localDelta = Math.min(size, delta);
-		var instr = new String();
-		var dropInstr = new String();
-		var priorInstr = new String();
+		Instruction instr;
+		Action dropInstr;
+		Instruction priorInstr;
 		for (int i = 1; i < localDelta ; i++) { 
-			instr = codeFragment.get(i-1) +
-					" else " + basicInstructions.get(i);
+			instr = codeFragment.get(i-1).orElse(basicInstructions.get(i));
 			codeFragment.add(instr);
 		}
 		/* now repeat middle stage if size < delta 
@@ -140,9 +146,9 @@ public class CodeFragment {
 		 */
 		for (int i = localDelta + numRepeatStages; (i < numRepeatStages + size)  && i < codeLength ; i++) { 
 			priorInstr = codeFragment.get(i-1);
-			dropInstr =  basicInstructions.get(i-(localDelta + numRepeatStages)) + " else ";
-			instr = priorInstr.replaceFirst(Pattern.quote(dropInstr),"");
-			instr += " else " + basicInstructions.get(i-numRepeatStages);
+			dropInstr =  basicInstructions.get(i-(localDelta + numRepeatStages));
+			instr = dropElse(priorInstr, dropInstr);
+			instr = instr.orElse(basicInstructions.get(i-numRepeatStages));
 			codeFragment.add(instr);
 		}
 		/* Now loop through dropping old instructions, draining
@@ -150,52 +156,49 @@ public class CodeFragment {
 		 */
 		for (int i = numRepeatStages + size; i < codeLength ; i++) { 
 			priorInstr = codeFragment.get(i-1);
-			dropInstr =  basicInstructions.get(i-delta)  + " else ";
-			instr = priorInstr.replaceFirst(Pattern.quote(dropInstr),"");
+			dropInstr =  basicInstructions.get(i-delta);
+			instr = dropElse(priorInstr, dropInstr);
 			codeFragment.add(instr);
 		}
 	}
 	
-	private String getBaseInstruction(String flow, String src, String snk) {
-		var instr = new String();
+	/**
+	 * Drop the first occurrence of action that is followed by an
+	 * else clause from instruction. The instruction is returned
+	 * unchanged if there is no such occurrence.
+	 */
+	private Instruction dropElse(Instruction instruction, Action action) {
+		var actions = instruction.getActions();
+		for (int i = 0; i < actions.size() - 1; i++) {
+			if (actions.get(i).equals(action)) {
+				var remaining = new ArrayList<Action>(actions);
+				remaining.remove(i);
+				return Instruction.of(remaining);
+			}
+		}
+		return instruction;
+	}
+	
+	private Action getBaseInstruction(String flow, String src, String snk) {
+		Action instr;
 		if (coordinator.equals(src)) {
 			/* push instruction */
-			instr += ifHas(flow,src,snk) + push(flow,src,snk);
+			instr = Action.push(Guard.HAS_EDGE, flow, src, nodeIndexMap.get(src),
+					snk, nodeIndexMap.get(snk), channel);
 		} else {
 			/* pull instruction */
-			instr += ifNotHas(flow,src,snk) + pull(flow,src,snk);
+			instr = Action.pull(Guard.NOT_HAS_EDGE, flow, src, nodeIndexMap.get(src),
+					snk, nodeIndexMap.get(snk), channel);
 		}
 		return instr;
 	}
 	
-	private String push(String flow, String src, String snk) {
-		var instruction = String.format("push(%s: %s -> %s, #%d)", flow, src, snk, channel);
-		return instruction;
-	}
-	
-	private String pull(String flow, String src, String snk) {
-		var instruction = String.format("pull(%s: %s -> %s, #%d)", flow, src, snk, channel);
-		return instruction;
-	}
-	
-	private String ifHas(String flow, String src, String snk) {
-		var instruction = String.format("if has(%s: %s -> %s) ", flow, src, snk);
-		return instruction;
+	public Instruction wait(int channel) {
+		return Instruction.waitOn(channel);
 	}
 	
-	private String ifNotHas(String flow, String src, String snk) {
-		var instruction = String.format("if !has(%s: %s -> %s) ", flow, src, snk);
-		return instruction;
-	}
-	
-	public String wait(int channel) {
-		var instruction = String.format("wait(#%d)", channel);
-		return instruction;
-	}
-	
-	public static String sleep() {
-		var instruction = SLEEP;
-		return instruction;
+	public static Instruction sleep() {
+		return Instruction.sleep();
 	}
 	
 	private void reportIfDifferentCoordinators(ArrayList<String> coordinators) {
@@ -7,7 +7,7 @@ public class CombinedActivation extends Activation implements Comparable<Activat
 		super(name);
 	}
 			
-	CombinedActivation(Activation elem, Integer time) {
+	CombinedActivation(Activation elem, int time) {
 		super(elem, time);	
 	} 
 	
@@ -30,7 +30,7 @@ public class CombinedActivation extends Activation implements Comparable<Activat
 		this.setStartTime(startTime);
 		this.addEdges(next.getEdges());
 		this.addCoordinators(next.getCoordinators());
-		this.addConflicts(next.getConflicts());
+		this.addConflicts(next.getConflicts(), next.getConflictMask());
 		
 	}
 
@@ -38,7 +38,7 @@ public class CombinedActivation extends Activation implements Comparable<Activat
 	public Boolean canCombine(Activation a2) {
 		Boolean result = false;
 		/* make sure a2 is not null */
-		if (a2 != null) {
+		if (a2 != null && !a2.isPreempted()) {
 			var newEntryCoordinator = a2.getCoordinators().get(0);
 			if (getCoordinators().contains(newEntryCoordinator)) {
 				/* The (first) coordinator of the newEntry
@@ -3,9 +3,13 @@ package edu.uiowa.cs.warp;
 import com.mkyong.system.OSValidator;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
 import javax.swing.JFileChooser;
 
 /**
@@ -142,6 +146,61 @@ public class FileManager {
     } // the file will be closed automatically upon exit of this try block
   }
 
+  /*
+   * Find the workload files of a batch. The batch is either a directory, whose .txt files are
+   * returned; a glob, such as topologies/*.txt, whose matching files are returned; or a manifest
+   * file that lists one workload file per line. Blank lines and lines starting with '#' are
+   * skipped in a manifest, and relative paths in it are relative to the manifest's directory.
+   * Files found in a directory or by a glob are returned in name order.
+   */
+  public ArrayList<String> findWorkLoadFiles(String batch) {
+    var files = new ArrayList<String>();
+    var globIndex = indexOfGlob(batch);
+    try {
+      if (globIndex >= 0) { // walk the directories the glob can match, from its fixed prefix
+        var prefixEnd = batch.lastIndexOf('/', globIndex);
+        var root = (prefixEnd < 0) ? Path.of("") : Path.of(batch.substring(0, prefixEnd + 1));
+        var matcher = FileSystems.getDefault().getPathMatcher("glob:" + batch);
+        try (var paths = Files.walk(root)) {
+          paths.filter(path -> Files.isRegularFile(path) && matcher.matches(path))
+              .forEach(path -> files.add(path.toString()));
+        }
+        Collections.sort(files);
+      } else if (Files.isDirectory(Path.of(batch))) {
+        try (var paths = Files.list(Path.of(batch))) {
+          paths.filter(path -> Files.isRegularFile(path) && path.toString().endsWith(".txt"))
+              .forEach(path -> files.add(path.toString()));
+        }
+        Collections.sort(files);
+      } else { // a manifest
+        var manifest = Path.of(batch);
+        var directory = manifest.getParent();
+        for (String line : Files.readAllLines(manifest)) {
+          var file = line.trim();
+          if (file.isEmpty() || file.startsWith("#")) {
+            continue;
+          }
+          if (directory != null && !Path.of(file).isAbsolute()) {
+            file = directory.resolve(file).toString();
+          }
+          files.add(file);
+        }
+      }
+    } catch (IOException | UncheckedIOException e) {
+      System.err.println("Error on finding the workload files of " + batch + ": " + e.getMessage());
+    }
+    return files;
+  }
+
+  private int indexOfGlob(String batch) {
+    for (int i = 0; i < batch.length(); i++) {
+      if ("*?[{".indexOf(batch.charAt(i)) >= 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
   public String readFile(String file) {
     // String contents = null;
     Path fileName = Path.of(file);
@@ -38,6 +38,7 @@ public class Flow extends SchedulableObject implements Comparable<Flow>{
 
     Integer initialPriority = UNDEFINED;
     Integer index;  // order in which the node was read from the Graph file
+    int id = SymbolTable.NO_ID; // dense id assigned by the WorkLoad's flow SymbolTable
     Integer numTxPerLink; //  determined by fault model
     ArrayList<Node> nodes; // Flow src is 1st element and flow snk is last element in array
     /*
@@ -45,9 +46,7 @@ public class Flow extends SchedulableObject implements Comparable<Flow>{
      *  Last entry is total worst-case E2E Tx cost for schedulability analysis
      */
     ArrayList<Integer> linkTxAndTotalCost; 
-    ArrayList<Edge> edges; //used in Partition and scheduling
     Node nodePredecessor;
-    Edge edgePredecessor;
     
     /**
      * Constructor that sets name, priority, and index.
@@ -65,16 +64,13 @@ public class Flow extends SchedulableObject implements Comparable<Flow>{
          */
         this.numTxPerLink = DEFAULT_FAULTS_TOLERATED + 1; 
         this.nodes = new ArrayList<>();
-        this.edges  = new ArrayList<>();
         this.linkTxAndTotalCost = new ArrayList<>();
-        this.edges = new ArrayList<>();	
         this.nodePredecessor = null;
-        this.edgePredecessor = null;
     }
     
     /**
-     * Constructor that sets the index, numTxPerLink, nodePredecessor, and edgePredecessor.
-     * It also initializes an ArrayList each for nodes, linkTxAndTotalCost, and edges.
+     * Constructor that sets the index, numTxPerLink, and nodePredecessor.
+     * It also initializes an ArrayList each for nodes and linkTxAndTotalCost.
      */
     Flow () {
     	super();
@@ -86,9 +82,7 @@ public class Flow extends SchedulableObject implements Comparable<Flow>{
     	this.numTxPerLink = DEFAULT_FAULTS_TOLERATED + 1; 
     	this.nodes = new ArrayList<>();
     	this.linkTxAndTotalCost = new ArrayList<>();
-    	this.edges = new ArrayList<>();
     	this.nodePredecessor = null;
-        this.edgePredecessor = null;
     }
 
 	/**
@@ -105,6 +99,13 @@ public class Flow extends SchedulableObject implements Comparable<Flow>{
 		return index;
 	}
 
+	/**
+	 * @return the id assigned by the WorkLoad, or SymbolTable.NO_ID if none was assigned
+	 */
+	public int getId() {
+		return id;
+	}
+
 	/**
 	 * @return the numTxPerLink
 	 */
@@ -119,24 +120,6 @@ public class Flow extends SchedulableObject implements Comparable<Flow>{
 		return nodes;
 	}
 	
-	/**
-	 * @return the edges
-	 */
-	public ArrayList<Edge> getEdges() {
-		return edges;
-	}
-
-	/**
-	 * Add an edge to the flow.
-	 */
-	public void addEdge(Edge edge) {
-		/* set predecessor and add edge to flow */
-		edge.setPredecessor(edgePredecessor);
-		edges.add(edge);
-		/* update predecessor for next edge added */
-		edgePredecessor = edge;
-	}
-	
 	/**
 	 * Add a node to the flow.
 	 */
@@ -0,0 +1,423 @@
+package edu.uiowa.cs.warp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Instruction is the typed form of the WARP DSL instruction a node executes
+ * in one time slot of a program. An instruction is an ordered list of actions
+ * joined by else clauses, e.g.,
+ *
+ * <pre>
+ * if has(F0) push(F0: A -> B, #3) else pull(F1: C -> A, #3)
+ * </pre>
+ *
+ * Each action has its command, flow, src, snk, and channel already resolved,
+ * so analyses read the program directly instead of parsing DSL strings. The
+ * DSL text is only a rendering of the instruction (toString()).
+ *
+ * Instructions are immutable. Methods that extend an instruction return a new
+ * Instruction.
+ *
+ */
+public final class Instruction {
+
+	/**
+	 * Commands of the WARP DSL.
+	 */
+	public enum Command {
+		PUSH, PULL, WAIT, SLEEP
+	}
+
+	/**
+	 * Conditions that can guard an action: none, has(flow),
+	 * has(flow: src -> snk), and !has(flow: src -> snk).
+	 */
+	public enum Guard {
+		NONE, HAS_FLOW, HAS_EDGE, NOT_HAS_EDGE
+	}
+
+	/**
+	 * Id used for nodes and channels an action does not use.
+	 */
+	public static final int UNUSED = -1;
+
+	private static final String ELSE = " else ";
+
+	private static final Instruction SLEEP = new Instruction(List.of(Action.SLEEP));
+
+	private final List<Action> actions;
+	private String text; // rendering of the instruction, created when first needed
+
+	/**
+	 * One action of an instruction: a guarded push or pull over a flow edge,
+	 * or a wait on a channel, or a sleep. The src and snk ids are the column
+	 * indexes of the nodes in the program (nodes ordered alphabetically).
+	 */
+	public static final class Action {
+
+		private static final Action SLEEP = new Action(Command.SLEEP, Guard.NONE, null, null,
+				UNUSED, null, UNUSED, UNUSED);
+
+		private final Command command;
+		private final Guard guard;
+		private final String flow;
+		private final String src;
+		private final int srcId;
+		private final String snk;
+		private final int snkId;
+		private final int channel;
+
+		private Action(Command command, Guard guard, String flow, String src, int srcId,
+				String snk, int snkId, int channel) {
+			this.command = command;
+			this.guard = guard;
+			this.flow = flow;
+			this.src = src;
+			this.srcId = srcId;
+			this.snk = snk;
+			this.snkId = snkId;
+			this.channel = channel;
+		}
+
+		/**
+		 * @return a push(flow: src -> snk, #channel) action guarded by guard
+		 */
+		static Action push(Guard guard, String flow, String src, int srcId, String snk,
+				int snkId, int channel) {
+			return new Action(Command.PUSH, guard, flow, src, srcId, snk, snkId, channel);
+		}
+
+		/**
+		 * @return a pull(flow: src -> snk, #channel) action guarded by guard
+		 */
+		static Action pull(Guard guard, String flow, String src, int srcId, String snk,
+				int snkId, int channel) {
+			return new Action(Command.PULL, guard, flow, src, srcId, snk, snkId, channel);
+		}
+
+		/**
+		 * @return a wait(#channel) action
+		 */
+		static Action waitOn(int channel) {
+			return new Action(Command.WAIT, Guard.NONE, null, null, UNUSED, null, UNUSED, channel);
+		}
+
+		/**
+		 * @return the command
+		 */
+		public Command getCommand() {
+			return command;
+		}
+
+		/**
+		 * @return the guard
+		 */
+		public Guard getGuard() {
+			return guard;
+		}
+
+		/**
+		 * @return the flow, or null for wait and sleep
+		 */
+		public String getFlow() {
+			return flow;
+		}
+
+		/**
+		 * @return the src node, or null for wait and sleep
+		 */
+		public String getSrc() {
+			return src;
+		}
+
+		/**
+		 * @return the src node id, or UNUSED for wait and sleep
+		 */
+		public int getSrcId() {
+			return srcId;
+		}
+
+		/**
+		 * @return the snk node, or null for wait and sleep
+		 */
+		public String getSnk() {
+			return snk;
+		}
+
+		/**
+		 * @return the snk node id, or UNUSED for wait and sleep
+		 */
+		public int getSnkId() {
+			return snkId;
+		}
+
+		/**
+		 * @return the channel, or UNUSED for sleep
+		 */
+		public int getChannel() {
+			return channel;
+		}
+
+		/**
+		 * @return true if the action is a push or pull
+		 */
+		public boolean isTransmission() {
+			return command == Command.PUSH || command == Command.PULL;
+		}
+
+		/**
+		 * @return the node coordinating the transmission (src of a push, snk of a pull),
+		 *         or null when the action is not a transmission
+		 */
+		public String getCoordinator() {
+			if (command == Command.PUSH) {
+				return src;
+			}
+			return (command == Command.PULL) ? snk : null;
+		}
+
+		/**
+		 * @return the node listening to the transmission (snk of a push, src of a pull),
+		 *         or null when the action is not a transmission
+		 */
+		public String getListener() {
+			if (command == Command.PUSH) {
+				return snk;
+			}
+			return (command == Command.PULL) ? src : null;
+		}
+
+		/**
+		 * @return the id of the listener node, or UNUSED when the action is not a
+		 *         transmission
+		 */
+		public int getListenerId() {
+			if (command == Command.PUSH) {
+				return snkId;
+			}
+			return (command == Command.PULL) ? srcId : UNUSED;
+		}
+
+		/**
+		 * @return true if this is a transmission of flow from src to snk
+		 */
+		public boolean transmits(String flow, String src, String snk) {
+			return isTransmission() && this.flow.equals(flow) && this.src.equals(src)
+					&& this.snk.equals(snk);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Action)) {
+				return false;
+			}
+			var other = (Action) obj;
+			return command == other.command && guard == other.guard && channel == other.channel
+					&& srcId == other.srcId && snkId == other.snkId && equals(flow, other.flow)
+					&& equals(src, other.src) && equals(snk, other.snk);
+		}
+
+		@Override
+		public int hashCode() {
+			var hash = command.hashCode();
+			hash = 31 * hash + guard.hashCode();
+			hash = 31 * hash + (flow == null ? 0 : flow.hashCode());
+			hash = 31 * hash + srcId;
+			hash = 31 * hash + snkId;
+			return 31 * hash + channel;
+		}
+
+		/**
+		 * @return the DSL text of this action
+		 */
+		@Override
+		public String toString() {
+			var text = new StringBuilder();
+			render(text);
+			return text.toString();
+		}
+
+		private void render(StringBuilder text) {
+			switch (guard) {
+				case HAS_FLOW:
+					text.append("if has(").append(flow).append(") ");
+					break;
+				case HAS_EDGE:
+					text.append("if has(");
+					renderEdge(text);
+					text.append(") ");
+					break;
+				case NOT_HAS_EDGE:
+					text.append("if !has(");
+					renderEdge(text);
+					text.append(") ");
+					break;
+				default:
+					break;
+			}
+			switch (command) {
+				case PUSH:
+					text.append("push(");
+					renderEdge(text);
+					text.append(", #").append(channel).append(')');
+					break;
+				case PULL:
+					text.append("pull(");
+					renderEdge(text);
+					text.append(", #").append(channel).append(')');
+					break;
+				case WAIT:
+					text.append("wait(#").append(channel).append(')');
+					break;
+				default:
+					text.append("sleep");
+					break;
+			}
+		}
+
+		private void renderEdge(StringBuilder text) {
+			text.append(flow).append(": ").append(src).append(" -> ").append(snk);
+		}
+
+		private static boolean equals(String a, String b) {
+			return (a == null) ? b == null : a.equals(b);
+		}
+	}
+
+	private Instruction(List<Action> actions) {
+		this.actions = actions;
+	}
+
+	/**
+	 * @return the sleep instruction
+	 */
+	public static Instruction sleep() {
+		return SLEEP;
+	}
+
+	/**
+	 * @return a wait(#channel) instruction
+	 */
+	public static Instruction waitOn(int channel) {
+		return of(Action.waitOn(channel));
+	}
+
+	/**
+	 * @return an instruction with the single action
+	 */
+	public static Instruction of(Action action) {
+		return new Instruction(List.of(action));
+	}
+
+	/**
+	 * @return an instruction made of actions, in order
+	 */
+	static Instruction of(List<Action> actions) {
+		return new Instruction(Collections.unmodifiableList(new ArrayList<Action>(actions)));
+	}
+
+	/**
+	 * @return a new instruction with action appended as an else clause
+	 */
+	public Instruction orElse(Action action) {
+		var extended = new ArrayList<Action>(actions.size() + 1);
+		extended.addAll(actions);
+		extended.add(action);
+		return new Instruction(Collections.unmodifiableList(extended));
+	}
+
+	/**
+	 * @return the actions of the instruction, in order (unmodifiable)
+	 */
+	public List<Action> getActions() {
+		return actions;
+	}
+
+	/**
+	 * @return the first action of the instruction
+	 */
+	public Action firstAction() {
+		return actions.get(0);
+	}
+
+	/**
+	 * @return the number of actions
+	 */
+	public int size() {
+		return actions.size();
+	}
+
+	/**
+	 * @return true if this is the sleep instruction
+	 */
+	public boolean isSleep() {
+		return actions.size() == 1 && actions.get(0).command == Command.SLEEP;
+	}
+
+	/**
+	 * @return true if any action uses command
+	 */
+	public boolean contains(Command command) {
+		for (Action action : actions) {
+			if (action.command == command) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return true if any action after the first uses command
+	 */
+	public boolean containsElse(Command command) {
+		for (int i = 1; i < actions.size(); i++) {
+			if (actions.get(i).command == command) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return true if action is one of the else clauses of this instruction
+	 */
+	public boolean containsElse(Action action) {
+		return actions.lastIndexOf(action) > 0;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		return (obj instanceof Instruction) && actions.equals(((Instruction) obj).actions);
+	}
+
+	@Override
+	public int hashCode() {
+		return actions.hashCode();
+	}
+
+	/**
+	 * @return the WARP DSL text of the instruction
+	 */
+	@Override
+	public String toString() {
+		if (text == null) {
+			var builder = new StringBuilder();
+			for (int i = 0; i < actions.size(); i++) {
+				if (i > 0) {
+					builder.append(ELSE);
+				}
+				actions.get(i).render(builder);
+			}
+			text = builder.toString();
+		}
+		return text;
+	}
+}
@@ -0,0 +1,91 @@
+package edu.uiowa.cs.warp;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * IntPriorityQueue is a min-heap of int values. It replaces a
+ * PriorityQueue<Integer> where values are added and removed in scheduler
+ * loops, so that no Integer is boxed per operation.
+ *
+ */
+public class IntPriorityQueue {
+
+	private int[] heap;
+	private int size;
+
+	IntPriorityQueue() {
+		this.heap = new int[4];
+		this.size = 0;
+	}
+
+	/**
+	 * Constructor creates a copy of queue.
+	 */
+	IntPriorityQueue(IntPriorityQueue queue) {
+		this.heap = Arrays.copyOf(queue.heap, Math.max(queue.size, 4));
+		this.size = queue.size;
+	}
+
+	public void add(int value) {
+		if (size == heap.length) {
+			heap = Arrays.copyOf(heap, 2 * size);
+		}
+		/* sift value up from the new leaf */
+		var i = size++;
+		while (i > 0) {
+			var parent = (i - 1) >>> 1;
+			if (value >= heap[parent]) {
+				break;
+			}
+			heap[i] = heap[parent];
+			i = parent;
+		}
+		heap[i] = value;
+	}
+
+	/**
+	 * @return the smallest value
+	 * @throws NoSuchElementException if the queue is empty
+	 */
+	public int peek() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return heap[0];
+	}
+
+	/**
+	 * Remove and return the smallest value.
+	 *
+	 * @throws NoSuchElementException if the queue is empty
+	 */
+	public int poll() {
+		var result = peek();
+		var value = heap[--size];
+		/* sift the last value down from the root */
+		var i = 0;
+		var half = size >>> 1;
+		while (i < half) {
+			var child = 2 * i + 1;
+			if (child + 1 < size && heap[child + 1] < heap[child]) {
+				child++;
+			}
+			if (value <= heap[child]) {
+				break;
+			}
+			heap[i] = heap[child];
+			i = child;
+		}
+		heap[i] = value;
+		return result;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int size() {
+		return size;
+	}
+}
@@ -0,0 +1,59 @@
+package edu.uiowa.cs.warp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests IntPriorityQueue against a PriorityQueue of Integers.
+ */
+class IntPriorityQueueTest {
+
+	@Test
+	void testMatchesPriorityQueue() {
+		var random = new Random(2820);
+		var queue = new IntPriorityQueue();
+		var expected = new PriorityQueue<Integer>();
+
+		for (int step = 0; step < 5000; step++) {
+			if (expected.isEmpty() || random.nextInt(3) > 0) {
+				var value = random.nextInt(200) - 50;
+				queue.add(value);
+				expected.add(value);
+			} else {
+				assertEquals(expected.poll(), queue.poll());
+			}
+			assertEquals(expected.size(), queue.size());
+			if (!expected.isEmpty()) {
+				assertEquals(expected.peek(), queue.peek());
+			}
+		}
+	}
+
+	@Test
+	void testCopyIsIndependent() {
+		var queue = new IntPriorityQueue();
+		queue.add(7);
+		queue.add(3);
+		var copy = new IntPriorityQueue(queue);
+		copy.poll();
+		copy.add(1);
+		assertEquals(3, queue.peek());
+		assertEquals(2, queue.size());
+		assertEquals(1, copy.poll());
+		assertEquals(7, copy.poll());
+		assertTrue(copy.isEmpty());
+	}
+
+	@Test
+	void testEmptyQueue() {
+		var queue = new IntPriorityQueue();
+		assertTrue(queue.isEmpty());
+		assertThrows(NoSuchElementException.class, () -> queue.peek());
+		assertThrows(NoSuchElementException.class, () -> queue.poll());
+	}
+}
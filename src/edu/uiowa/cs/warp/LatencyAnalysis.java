@@ -1,6 +1,7 @@
 package edu.uiowa.cs.warp;
 
-import edu.uiowa.cs.warp.WarpDSL.InstructionParameters;
+import edu.uiowa.cs.warp.Instruction.Action;
+import java.util.ArrayList;
 import java.util.HashMap;
 
 /**
@@ -14,13 +15,17 @@ public class LatencyAnalysis {
   private Description latencyReport;
   private Program program;
   private WorkLoad workload;
+  private ArrayList<String> flowNamesInPriorityOrder;
   private ProgramSchedule programTable;
   private HashMap<String, Integer> nodeIndex;
+  private int maxLatency = 0;
+  private int numUnknownLatencies = 0;
 
   LatencyAnalysis(WarpInterface warp) {
     this.latencyReport = new Description();
     this.program = warp.toProgram();
     this.workload = warp.toWorkload();
+    this.flowNamesInPriorityOrder = program.getFlowNamesInPriorityOrder();
     this.programTable = program.getSchedule();
     this.nodeIndex = program.getNodeMapIndex();
   }
@@ -29,6 +34,7 @@ public class LatencyAnalysis {
     this.latencyReport = new Description();
     this.program = program;
     this.workload = program.toWorkLoad();
+    this.flowNamesInPriorityOrder = program.getFlowNamesInPriorityOrder();
     this.programTable = program.getSchedule();
     this.nodeIndex = program.getNodeMapIndex();
   }
@@ -50,8 +56,9 @@ public class LatencyAnalysis {
      * 
      */
 
-    var flows = workload.getFlowNamesInPriorityOrder();
-    for (String flowName : flows) {
+    /* a schedule too long to build leaves a program shorter than the hyperPeriod */
+    var hyperPeriod = Math.min(workload.getHyperPeriod(), programTable.size());
+    for (String flowName : flowNamesInPriorityOrder) {
       var time = 0;
 
       var nodes = workload.getNodesInFlow(flowName); // names of nodes in flow
@@ -69,7 +76,7 @@ public class LatencyAnalysis {
       var numTxRequired = numTxAttemptsPerLink[numTxAttemptsPerLink.length - 1];
       var numTxProcessed = 0; // num of Tx seen in the program schedule so far
       var instance = 0;
-      while (time < workload.getHyperPeriod()) {
+      while (time < hyperPeriod) {
         /* get next release time and absolute deadline of the flow */
         var releaseTime = workload.nextReleaseTime(flowName, time);
         var deadline = workload.nextAbsoluteDeadline(flowName, releaseTime);
@@ -78,9 +85,9 @@ public class LatencyAnalysis {
         time = releaseTime;
         numTxProcessed = 0; // num of Tx seen in the program schedule so far
         while (time < nextReleaseTime) {
-          /* get instruction strings at these to locations */
-          String instr1 = programTable.get(time, srcIndex);
-          String instr2 = programTable.get(time, snkIndex);
+          /* get instructions at these to locations */
+          Instruction instr1 = programTable.getInstruction(time, srcIndex);
+          Instruction instr2 = programTable.getInstruction(time, snkIndex);
           numTxProcessed += numMatchingTx(flowName, src, snk, instr1);
           numTxProcessed += numMatchingTx(flowName, src, snk, instr2);
           if (numTxProcessed == numTxRequired) {
@@ -88,6 +95,7 @@ public class LatencyAnalysis {
              * all required Tx attempts have been made compute and record latency
              */
             var latency = time - releaseTime + 1;
+            maxLatency = Math.max(maxLatency, latency);
             // report latency
             String latencyMsg =
                 String.format("Maximum latency for %s:%d is %d", flowName, instance, latency);
@@ -112,6 +120,7 @@ public class LatencyAnalysis {
               String.format("UNKNOWN latency for %s:%d; Not enough transmissions attempted\n",
                   flowName, instance);
           latencyReport.add(latencyMsg);
+          numUnknownLatencies++;
         }
         instance++;
       }
@@ -121,23 +130,32 @@ public class LatencyAnalysis {
     return latencyReport;
   }
 
-  public Integer numMatchingTx(String flow, String src, String snk, String instr) {
+  /**
+   * @return the largest latency of any flow instance in the latency report (see latencyReport)
+   */
+  public int getMaxLatency() {
+    return maxLatency;
+  }
+
+  /**
+   * @return the number of flow instances whose latency is UNKNOWN in the latency report (see
+   *         latencyReport)
+   */
+  public int getNumUnknownLatencies() {
+    return numUnknownLatencies;
+  }
+
+  public Integer numMatchingTx(String flow, String src, String snk, Instruction instr) {
     var numTx = 0;
 
     if (flow == null || src == null || snk == null || instr == null) {
       /* make sure all parameters are valid */
       return numTx;
     }
-    /*
-     * get a Warp instruction parser object and then get the instruction parameters from the
-     * instruction string.
-     */
-    var dsl = new WarpDSL();
-    var instructionParametersArray = dsl.getInstructionParameters(instr);
-
-    for (InstructionParameters entry : instructionParametersArray) {
+    /* the actions of the instruction already carry the flow, src, and snk names */
+    for (Action entry : instr.getActions()) {
       String flowName = entry.getFlow();
-      if (flowName.equals(flow)) {
+      if (flow.equals(flowName)) {
         /*
          * This instruction is for the flow we want. (flow name is set for push/pull instructions,
          * which are all we want. If not push/pull, then we skip this instruction.) If flow, src,
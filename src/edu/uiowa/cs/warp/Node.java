@@ -13,8 +13,10 @@ public class Node extends SchedulableObject implements Comparable<Node> {
 	
 	private Integer channel; // used to track the current channel node is using for Tx/Rx
 	private Integer index; // used as an alternate name for the simulator input file
+	private int id = SymbolTable.NO_ID; // dense id assigned by the WorkLoad's node SymbolTable
     private ArrayList<Edge> edges; // edges connected to the node
     private Set<String> conflicts; // nodes with conflicts
+    private BitSet conflictMask; // ids of the nodes in conflicts, or null if a node has no id
     
     // constructor that sets name, and index
     Node(String name, Integer priority, Integer index) {
@@ -25,6 +27,7 @@ public class Node extends SchedulableObject implements Comparable<Node> {
     	this.channel = DEFAULT_CHANNEL;
     	this.edges = new ArrayList<Edge>();
     	this.conflicts = new HashSet<String>();
+    	this.conflictMask = new BitSet();
     }
     
     @Override
@@ -56,9 +59,32 @@ public class Node extends SchedulableObject implements Comparable<Node> {
 		return conflicts;
 	}
 
+	/**
+	 * @return the ids of the nodes with conflicts, or null if a conflict was added by
+	 *         name only
+	 */
+	public BitSet getConflictMask() {
+		return conflictMask;
+	}
+
 	public void addConflict(String name) {
     	conflicts.add(name);
+    	conflictMask = null; // no id, so the mask no longer matches the conflicts
     }
+
+	/**
+	 * Add node to the conflicts, keeping the conflict mask in step when node has an id.
+	 *
+	 * @param node the node that conflicts with this node
+	 */
+	public void addConflict(Node node) {
+		conflicts.add(node.getName());
+		if (conflictMask != null && node.getId() != SymbolTable.NO_ID) {
+			conflictMask.set(node.getId());
+		} else {
+			conflictMask = null;
+		}
+	}
 	
     /**
 	 * @return the size of edges
@@ -81,6 +107,13 @@ public class Node extends SchedulableObject implements Comparable<Node> {
 		return index;
 	}
 
+	/**
+	 * @return the id assigned by the WorkLoad, or SymbolTable.NO_ID if none was assigned
+	 */
+	public int getId() {
+		return id;
+	}
+
 	/**
 	 * @param channel the channel to set
 	 */
@@ -95,6 +128,13 @@ public class Node extends SchedulableObject implements Comparable<Node> {
 		this.index = index;
 	}
 
+	/**
+	 * @param id the id to set
+	 */
+	void setId(int id) {
+		this.id = id;
+	}
+
 	@Override
 	public void print(String headerMsg) {
 		System.out.printf("\n%s",headerMsg);
@@ -0,0 +1,313 @@
+package edu.uiowa.cs.warp;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.uiowa.cs.warp.SystemAttributes.ScheduleChoices;
+
+/**
+ * ParameterSweep finds the minimum number of channels that meets every flow deadline for each
+ * point (numFaults, m, e2e) of a grid of reliability parameters, using one scheduler. The workload
+ * is parsed once: the WorkLoad of each point is a copy whose flows only have their transmission
+ * costs finalized again (see WorkLoad(WorkLoad, Integer, Double, Double)).
+ * <p>
+ * Schedulers only depend on the parameters through the transmission costs of the flows, so the
+ * points whose flows have the same costs are searched once. Each search tries channel counts
+ * from 1 upward and stops at the first that meets every deadline, which is the minimum, and the
+ * searches run in parallel.
+ * <p>
+ * With cost bounds, a search also uses the results of the searches whose flows cost no more on
+ * every link: it starts at their minimum number of channels, and is skipped if one of them needs
+ * more channels than are available. So the searches run in waves: a search is in the wave after
+ * the last of those cheaper searches, and the searches of a wave run in parallel once the waves
+ * before it have finished. These bounds assume that removing transmissions never makes a
+ * deadline miss, which holds for the schedulers in practice but is not guaranteed, so a grid
+ * built with them may show a minimum that is too high or a - where some count works. They are
+ * off by default. The results and the number of programs built do not depend on the number of
+ * threads.
+ *
+ */
+public class ParameterSweep {
+
+	private static final String CELL_FORMAT = "%10s";
+	private static final String NONE = "-";
+
+	private WorkLoad workLoad;
+	private ScheduleChoices choice;
+	private Integer maxChannels;
+	private Integer numThreads;
+	private boolean costBounds;
+	private ArrayList<Integer> faults = new ArrayList<>();
+	private ArrayList<Double> ms = new ArrayList<>();
+	private ArrayList<Double> e2es = new ArrayList<>();
+	private Integer[][][] minChannels; // indexed by faults, m and e2e; null when none is enough
+	private AtomicInteger numSchedules = new AtomicInteger();
+	private int numSearches;
+
+	/**
+	 * Constructor creates a sweep that has not been run.
+	 *
+	 * @param workLoad the parsed WorkLoad whose flows are swept
+	 * @param choice the scheduler that builds the programs
+	 * @param maxChannels the largest number of channels tried, between 1 and 16
+	 * @param numThreads the number of threads the searches run on
+	 */
+	ParameterSweep(WorkLoad workLoad, ScheduleChoices choice, Integer maxChannels,
+			Integer numThreads) {
+		this(workLoad, choice, maxChannels, numThreads, false);
+	}
+
+	/**
+	 * Constructor creates a sweep that has not been run.
+	 *
+	 * @param workLoad the parsed WorkLoad whose flows are swept
+	 * @param choice the scheduler that builds the programs
+	 * @param maxChannels the largest number of channels tried, between 1 and 16
+	 * @param numThreads the number of threads the searches run on
+	 * @param costBounds true if searches are bounded by the results of searches whose flows cost
+	 *        no more, which builds fewer programs but assumes fewer transmissions never miss a
+	 *        deadline
+	 */
+	ParameterSweep(WorkLoad workLoad, ScheduleChoices choice, Integer maxChannels,
+			Integer numThreads, boolean costBounds) {
+		this.workLoad = workLoad;
+		this.choice = choice;
+		this.maxChannels = maxChannels;
+		this.numThreads = numThreads;
+		this.costBounds = costBounds;
+	}
+
+	/**
+	 * Finds the minimum number of channels for every point of the grid faults x ms x e2es.
+	 * Faults of 0 use m and e2e to find the transmission costs, as WorkLoad does.
+	 *
+	 * @param faults the numbers of faults per edge
+	 * @param ms the minimum packet reception rates
+	 * @param e2es the end-to-end reliabilities
+	 * @throws InterruptedException if interrupted while waiting for the searches
+	 * @throws ExecutionException if a search fails to build a program
+	 */
+	public void sweep(List<Integer> faults, List<Double> ms, List<Double> e2es)
+			throws InterruptedException, ExecutionException {
+		this.faults = new ArrayList<>(faults);
+		this.ms = new ArrayList<>(ms);
+		this.e2es = new ArrayList<>(e2es);
+		minChannels = new Integer[faults.size()][ms.size()][e2es.size()];
+		numSchedules.set(0);
+		var searches = new LinkedHashMap<List<Integer>, Search>();
+		for (int f = 0; f < faults.size(); f++) {
+			for (int i = 0; i < ms.size(); i++) {
+				for (int j = 0; j < e2es.size(); j++) {
+					var point = new WorkLoad(workLoad, faults.get(f), ms.get(i), e2es.get(j));
+					var costs = txCosts(point);
+					var search = searches.get(costs);
+					if (search == null) {
+						search = new Search(point.freeze(), costs);
+						searches.put(costs, search);
+					}
+					search.points.add(new int[] {f, i, j});
+				}
+			}
+		}
+		numSearches = searches.size();
+		var executor = Executors.newFixedThreadPool(numThreads);
+		try {
+			for (ArrayList<Search> wave : waves(new ArrayList<Search>(searches.values()), costBounds)) {
+				var results = new ArrayList<Future<Integer>>();
+				for (Search search : wave) {
+					results.add(executor.submit(() -> search(search)));
+				}
+				for (int s = 0; s < wave.size(); s++) {
+					var search = wave.get(s);
+					search.minChannels = results.get(s).get();
+					for (int[] point : search.points) {
+						minChannels[point[0]][point[1]][point[2]] = search.minChannels;
+					}
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/*
+	 * Group the searches in waves, each search in the wave after the last wave of the searches
+	 * whose costs are no more than its costs, and record those cheaper searches. Without cost
+	 * bounds, every search is in the first wave and has no cheaper searches.
+	 */
+	private static ArrayList<ArrayList<Search>> waves(ArrayList<Search> searches,
+			boolean costBounds) {
+		/* a cheaper search has a lower total cost, or the same total and lower costs first */
+		searches.sort(Comparator.comparingLong((Search search) -> search.totalCost)
+				.thenComparing(search -> search.costs, ParameterSweep::compareCosts));
+		var waves = new ArrayList<ArrayList<Search>>();
+		for (int s = 0; s < searches.size(); s++) {
+			var search = searches.get(s);
+			for (int c = 0; costBounds && c < s; c++) {
+				var cheaper = searches.get(c);
+				if (cheaper.costsNoMoreThan(search)) {
+					search.cheaper.add(cheaper);
+					search.wave = Math.max(search.wave, cheaper.wave + 1);
+				}
+			}
+			if (search.wave == waves.size()) {
+				waves.add(new ArrayList<Search>());
+			}
+			waves.get(search.wave).add(search);
+		}
+		return waves;
+	}
+
+	private static int compareCosts(List<Integer> costs, List<Integer> otherCosts) {
+		for (int i = 0; i < costs.size(); i++) {
+			var compare = Integer.compare(costs.get(i), otherCosts.get(i));
+			if (compare != 0) {
+				return compare;
+			}
+		}
+		return 0;
+	}
+
+	/*
+	 * Find the minimum number of channels for search's WorkLoad, starting from the bounds that
+	 * its cheaper searches, which have all finished, give when there are cost bounds.
+	 */
+	private Integer search(Search search) {
+		var lowest = 1;
+		for (Search cheaper : search.cheaper) {
+			if (cheaper.minChannels == null) { // not enough channels for cheaper flows
+				return null;
+			}
+			lowest = Math.max(lowest, cheaper.minChannels);
+		}
+		Integer channels = null;
+		for (int n = lowest; n <= maxChannels; n++) {
+			numSchedules.incrementAndGet();
+			if (SystemFactory.create(search.workLoad, n, choice).deadlinesMet()) {
+				channels = n; // the first count that meets every deadline is the minimum
+				break;
+			}
+		}
+		return channels;
+	}
+
+	/*
+	 * The transmission costs the schedulers use: for each flow, the transmissions per link used
+	 * by RealTime HART, then the transmissions needed on each link and their total.
+	 */
+	private static List<Integer> txCosts(WorkLoad workLoad) {
+		var costs = new ArrayList<Integer>();
+		for (String flowName : workLoad.getFlowNames()) {
+			costs.add(workLoad.getFlowTxAttemptsPerLink(flowName));
+			for (Integer linkCost : workLoad.getNumTxAttemptsPerLink(flowName)) {
+				costs.add(linkCost);
+			}
+			costs.add(workLoad.getTotalTxAttemptsInFlow(flowName));
+		}
+		return costs;
+	}
+
+	/**
+	 * The points of the grid whose flows have the same transmission costs, and the minimum number
+	 * of channels they need once it is found.
+	 */
+	private static class Search {
+		WorkLoad workLoad;
+		List<Integer> costs;
+		long totalCost;
+		ArrayList<int[]> points = new ArrayList<>();
+		ArrayList<Search> cheaper = new ArrayList<>(); // searches whose costs are no more
+		int wave = 0;
+		Integer minChannels;
+
+		Search(WorkLoad workLoad, List<Integer> costs) {
+			this.workLoad = workLoad;
+			this.costs = costs;
+			for (String flowName : workLoad.getFlowNames()) {
+				totalCost += workLoad.getTotalTxAttemptsInFlow(flowName);
+			}
+		}
+
+		/* true if no cost of this search is more than that of other */
+		boolean costsNoMoreThan(Search other) {
+			for (int i = 0; i < costs.size(); i++) {
+				if (costs.get(i) > other.costs.get(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * @param faults the number of faults per edge of the point
+	 * @param m the minimum packet reception rate of the point
+	 * @param e2e the end-to-end reliability of the point
+	 * @return the minimum number of channels that meets every deadline at the point, or null if
+	 *         none up to maxChannels does or the point was not swept
+	 */
+	public Integer getMinChannels(Integer faults, Double m, Double e2e) {
+		var f = this.faults.indexOf(faults);
+		var i = ms.indexOf(m);
+		var j = e2es.indexOf(e2e);
+		if (minChannels == null || f < 0 || i < 0 || j < 0) {
+			return null;
+		}
+		return minChannels[f][i][j];
+	}
+
+	/**
+	 * @return the number of programs built by the last sweep
+	 */
+	public int getNumSchedules() {
+		return numSchedules.get();
+	}
+
+	/**
+	 * @return the number of points of the last sweep whose flows had different transmission costs
+	 */
+	public int getNumSearches() {
+		return numSearches;
+	}
+
+	/**
+	 * @return a grid of the minimum number of channels for each number of faults: one row per m
+	 *         and one column per e2e, with - where no number of channels meets every deadline
+	 */
+	public Description toDescription() {
+		var grid = new Description();
+		grid.add(String.format("Parameter sweep for %s with %s scheduling and 1 to %d channels:\n",
+				workLoad.getName(), choice.toString(), maxChannels));
+		for (int f = 0; f < faults.size(); f++) {
+			grid.add(String.format("\nMinimum channels with %d faults (m by e2e):\n", faults.get(f)));
+			var header = new StringBuilder(String.format(CELL_FORMAT, "m \\ e2e"));
+			for (Double e2e : e2es) {
+				header.append(String.format(CELL_FORMAT, String.valueOf(e2e)));
+			}
+			grid.add(header.append("\n").toString());
+			for (int i = 0; i < ms.size(); i++) {
+				var row = new StringBuilder(String.format(CELL_FORMAT, String.valueOf(ms.get(i))));
+				for (int j = 0; j < e2es.size(); j++) {
+					var channels = minChannels[f][i][j];
+					row.append(String.format(CELL_FORMAT, (channels == null) ? NONE : channels.toString()));
+				}
+				grid.add(row.append("\n").toString());
+			}
+		}
+		grid.add(String.format("\n%d points, %d with different transmission costs, %d programs built "
+				+ "on %d threads%s\n", faults.size() * ms.size() * e2es.size(), numSearches,
+				numSchedules.get(), numThreads, costBounds ? " with cost bounds" : ""));
+		return grid;
+	}
+
+	@Override
+	public String toString() {
+		return toDescription().toString();
+	}
+}
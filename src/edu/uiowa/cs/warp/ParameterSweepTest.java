@@ -0,0 +1,104 @@
+package edu.uiowa.cs.warp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.uiowa.cs.warp.SystemAttributes.ScheduleChoices;
+
+class ParameterSweepTest {
+	private static final List<Integer> FAULTS = List.of(0, 1);
+	private static final List<Double> MS = List.of(0.8, 0.95);
+	private static final List<Double> E2ES = List.of(0.99, 0.999);
+
+	private WorkLoad stressTestWorkLoad;
+	private ParameterSweep sweep;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		//StressTest needs more than one channel for some points and can't meet its
+		//deadlines with any number of channels at others
+		stressTestWorkLoad = new WorkLoad(0.9, 0.99, "StressTest.txt");
+		sweep = new ParameterSweep(stressTestWorkLoad, ScheduleChoices.RM, 16, 2);
+		sweep.sweep(FAULTS, MS, E2ES);
+	}
+
+	@Test
+	void testMinChannelsMatchProgramsOfFile() {
+		for (Integer faults : FAULTS) {
+			for (Double m : MS) {
+				for (Double e2e : E2ES) {
+					var workLoad = new WorkLoad(faults, m, e2e, "StressTest.txt");
+					Integer minChannels = null;
+					for (int n = 1; n <= 16 && minChannels == null; n++) {
+						if (SystemFactory.create(workLoad, n, ScheduleChoices.RM).deadlinesMet()) {
+							minChannels = n;
+						}
+					}
+					assertEquals(minChannels, sweep.getMinChannels(faults, m, e2e));
+				}
+			}
+		}
+		assertNull(sweep.getMinChannels(3, 0.8, 0.99)); // not swept
+	}
+
+	@Test
+	void testEqualCostsArePruned() {
+		//m and e2e don't change the costs of flows with faults, so those points are searched once
+		assertEquals(5, sweep.getNumSearches());
+		//a search stops at the first count that meets every deadline
+		assertTrue(sweep.getNumSchedules() <= 5 * 16);
+	}
+
+	@Test
+	void testCostBoundsAreOptIn() throws Exception {
+		var bounded = new ParameterSweep(stressTestWorkLoad, ScheduleChoices.RM, 16, 2, true);
+		bounded.sweep(FAULTS, MS, E2ES);
+		//searches start at the minimum of cheaper flows and are skipped when cheaper flows missed
+		//their deadlines with every count
+		assertTrue(bounded.getNumSchedules() < sweep.getNumSchedules());
+		assertTrue(bounded.toString().contains("with cost bounds"));
+		assertFalse(sweep.toString().contains("with cost bounds"));
+		for (Integer faults : FAULTS) {
+			for (Double m : MS) {
+				for (Double e2e : E2ES) {
+					assertEquals(sweep.getMinChannels(faults, m, e2e), bounded.getMinChannels(faults, m, e2e));
+				}
+			}
+		}
+	}
+
+	@Test
+	void testPruningDoesNotDependOnThreads() throws Exception {
+		var bounded = new ParameterSweep(stressTestWorkLoad, ScheduleChoices.RM, 16, 2, true);
+		bounded.sweep(FAULTS, MS, E2ES);
+		for (int threads = 1; threads <= 4; threads *= 2) {
+			var other = new ParameterSweep(stressTestWorkLoad, ScheduleChoices.RM, 16, threads);
+			other.sweep(FAULTS, MS, E2ES);
+			assertEquals(sweep.getNumSchedules(), other.getNumSchedules());
+			var otherBounded = new ParameterSweep(stressTestWorkLoad, ScheduleChoices.RM, 16, threads, true);
+			otherBounded.sweep(FAULTS, MS, E2ES);
+			assertEquals(bounded.getNumSchedules(), otherBounded.getNumSchedules());
+			for (Integer faults : FAULTS) {
+				for (Double m : MS) {
+					for (Double e2e : E2ES) {
+						assertEquals(sweep.getMinChannels(faults, m, e2e), other.getMinChannels(faults, m, e2e));
+						assertEquals(bounded.getMinChannels(faults, m, e2e), otherBounded.getMinChannels(faults, m, e2e));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void testGrid() {
+		var grid = sweep.toString();
+		assertTrue(grid.startsWith("Parameter sweep for StressTest"));
+		assertTrue(grid.contains("Minimum channels with 0 faults"));
+		assertTrue(grid.contains("Minimum channels with 1 faults"));
+		assertTrue(grid.contains("8 points, 5 with different transmission costs"));
+	}
+}
@@ -3,6 +3,7 @@ package edu.uiowa.cs.warp;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.PriorityQueue;
 
@@ -25,6 +26,8 @@ public abstract class Poset {
 	private NodeMap nodeMap;
 	private PriorityQueue<Activation> priorityQueue;
 	protected HashMap<String, Integer> nodeConnectivityMap;
+	/* the edges and conflicts of each workload node in this poset */
+	private IdentityHashMap<Node, Node> posetNodes;
 
 	FlowNodeToActivationMap activationMap;
 	/*
@@ -49,6 +52,7 @@ public abstract class Poset {
 		this.activationMap = new FlowNodeToActivationMap();
 		/* init map to return a null activation if null key intered */
 		this.activationMap.put(null, null);
+		this.posetNodes = new IdentityHashMap<>();
 		flows = workload.getFlows().values();
 		nodeMap = workload.getNodes();
 		nodes = nodeMap.values();
@@ -167,13 +171,11 @@ public abstract class Poset {
 				edge = new Edge(flow.getName(),src,snk,priority, 
 						period, deadline, phase, numTx);
 				/* Add edge to the nodes in the NodeMap */
-				srcNode.addEdge(edge);
-				snkNode.addEdge(edge);
+				posetNode(srcNode).addEdge(edge);
+				posetNode(snkNode).addEdge(edge);
 				/* Add edge to the nodes in the flow */
-				flowSrc.addEdge(edge);
-				flowSnk.addEdge(edge);
-				/* Add the edege to the flow */
-				flow.addEdge(edge);
+				posetNode(flowSrc).addEdge(edge);
+				posetNode(flowSnk).addEdge(edge);
 
 			}
 		}
@@ -189,7 +191,7 @@ public abstract class Poset {
 
 	private void createGlobalConflictLists() {
 		for (Node node: nodes) {
-			for (Edge edge: node.getEdges()) {
+			for (Edge edge: posetNode(node).getEdges()) {
 				/* get src and snk nodes and names */
 				var src = edge.getSrc();
 				var snk = edge.getSnk();
@@ -200,8 +202,8 @@ public abstract class Poset {
 				 * don't need to worry about duplicates
 				 * as Set ensures that doesn't happen.
 				 */
-				srcNode.addConflict(snk);
-				snkNode.addConflict(src);
+				posetNode(srcNode).addConflict(snkNode);
+				posetNode(snkNode).addConflict(srcNode);
 			}
 		}
 	}
@@ -212,15 +214,13 @@ public abstract class Poset {
 			for (Integer i = 0; i < flowNodes.size() -1 ; i++) {
 				var srcNode = flowNodes.get(i); 
 				var snkNode = flowNodes.get(i+1);
-				var src = srcNode.getName();
-				var snk = snkNode.getName();
 				/* 
 				 * conflict list is a set, so just add
 				 * don't need to worry about duplicates
 				 * as Set ensures that doesn't happen.
 				 */
-				srcNode.addConflict(snk);
-				snkNode.addConflict(src);
+				posetNode(srcNode).addConflict(snkNode);
+				posetNode(snkNode).addConflict(srcNode);
 			}
 		}
 
@@ -238,7 +238,7 @@ public abstract class Poset {
 		var maxEdges = 0;
 		for (Integer i = 0; i < size; i++) {
 			var node = nodesInFlow.get(i);
-			var numEdges = node.numEdges();
+			var numEdges = posetNode(node).numEdges();
 			if (numEdges > maxEdges) {
 				maxEdges = numEdges;
 				coordinatorIndex = i;
@@ -301,9 +301,28 @@ public abstract class Poset {
 		}
 	}
 	
+	/**
+	 * posetNode returns the node that holds the edges and conflicts
+	 * of a workload node in this poset. The workload's nodes are
+	 * only read, so several posets can be built from one WorkLoad,
+	 * even concurrently.
+	 * 
+	 * @param node a node in the workload's NodeMap or in one of its flows
+	 * @return the poset's node for node
+	 */
+	protected Node posetNode(Node node) {
+		var posetNode = posetNodes.get(node);
+		if (posetNode == null) {
+			posetNode = new Node(node.getName(), node.getPriority(), node.getIndex());
+			posetNode.setId(node.getId());
+			posetNodes.put(node, posetNode);
+		}
+		return posetNode;
+	}
+
 	private Integer getMaxTx(Node node) {
 		var result = 0;
-		for (Edge edge: node.getEdges()) {
+		for (Edge edge: posetNode(node).getEdges()) {
 			result = Math.max(result, edge.getNumTx());
 		}
 		return result;
@@ -319,9 +338,9 @@ public abstract class Poset {
 		/* add the node as the coordinator */
 		newPartition.addCoordinator(node.getName());
 		/* set the conflicts */
-		newPartition.setConflicts(node.getConflicts());
+		newPartition.setConflicts(posetNode(node).getConflicts(), posetNode(node).getConflictMask());
 		/* add the edges associated with this coordinator */
-		newPartition.addEdges(node.getEdges());
+		newPartition.addEdges(posetNode(node).getEdges());
 		/* set the predecessor as the node's predecessor */
 		var nodePred = node.getPredecessor();
 		var pred = activationMap.get(nodePred);
@@ -338,6 +357,10 @@ public abstract class Poset {
 		return workload.getHyperPeriod();
 	}
 
+	public long getLongHyperPeriod() {
+		return workload.getLongHyperPeriod();
+	}
+
 	public Integer getMaxPhase() {
 		return workload.getMaxPhase();
 	}
@@ -3,267 +3,149 @@ package edu.uiowa.cs.warp;
 import java.util.*;
 
 /**
- * PreemptiveSchedule extends Schedule to build a preemptive, 
- * priority schedule for the Poset using numChannels. 
- * 
+ * PreemptiveSchedule extends Schedule to build a preemptive,
+ * priority schedule for the Poset using numChannels.
+ *
+ * An activation is first scheduled without preemption, as in
+ * NonPreemptiveSchedule. When that misses its deadline, the
+ * activation is preempted by the entries already in the schedule:
+ * it executes in slices that fill the free, conflict-free time
+ * slots of one channel. Each slice is a separate schedule entry,
+ * and every slice records the slices after the first as its
+ * additional schedule times, which toProgram uses to emit the
+ * matching part of the activation's code.
+ *
  * @author sgoddard2
  *
  */
 public class PreemptiveSchedule extends Schedule {
-	
+
 	PreemptiveSchedule(Poset poset, Integer numChannels) {
 		super(poset,numChannels);
 	}
-	
-	@Override
-	protected ScheduleLocation continueSearch(Integer time, Activation activation) {
-		return findPreeptiveChannelAndTime(time,activation);
-	}
-	
+
 	@Override
-	public ProgramSchedule toProgram() {
-		var program = new ProgramSchedule();	
-		
-//TODO write code to support preemption
-		
-		return program;
-	}
-	
-	private ScheduleLocation findPreeptiveChannelAndTime(Integer startTime, Activation schedulableObject ) {
-		
-		var channel = numChannels;
-		var time = startTime;
-		var result = findMaxTimeAvailable(time, schedulableObject);
-		var channelConsidered = result.channel;
-		var timeAvailable = result.time;
-		
-		
-		if (channelConsidered == numChannels) {
-			/* no available time slots near this time, even for preemption */
-			return findChannelAndTime(time+1,schedulableObject);
-		} else {
-			/* can use timeAvailable.time here on timeAvailable.channel
-			 * then must find additional time on same channel until 
-			 * done
-			 */
-			// return findAdditionalTime(timeAvailable.channel,time+1,schedulableObject);
-			var duration = schedulableObject.getExecutionDuration();
-			var timeRemaining = duration-timeAvailable;
-			var additionalScheduleTimes = findAdditionalTime(channelConsidered,time+timeAvailable,schedulableObject,timeRemaining);
-			var numStartTimes = additionalScheduleTimes.size();
-			var lastStartTime = endScheduleTime; 
-			if (numStartTimes > 0 ) {
-				lastStartTime = additionalScheduleTimes.get(numStartTimes-1).getStartTime();
+	protected Boolean addToSchedule(Activation next) {
+		if (super.addToSchedule(next)) {
+			/* scheduled without preemption */
+			return true;
+		}
+		var releaseTime = next.getReleaseTime();
+		var startTime = releaseTime;
+		var pred = next.getPredecessor();
+		if (pred != null) {
+			/* peek at the head of the endTimes for pred */
+			if (!pred.hasEndTimes()) {
+				return false; // predecessor has not been scheduled
 			}
-			if (lastStartTime < endScheduleTime) {
-				// schedulableObject.addAdditionalStartTime(nextStartTime);
-				channel = channelConsidered;
-				schedulableObject.addScheduleTimes(additionalScheduleTimes);
-			} else {
-				time = lastStartTime;
+			var predEndTime = pred.peekEndTimes();
+			if (predEndTime >= startTime) {
+				startTime = predEndTime+1;
 			}
 		}
-		return new ScheduleLocation(channel, time);	
-	}
-	
-	private ArrayList<ScheduleTime> findAdditionalTime(Integer channel, Integer startTime,
-			Activation a1, Integer timeRemaining) {
-		var time = startTime;
-		var results = new ArrayList<ScheduleTime>();
-		
-		// if (timeRemaining <= )
-		while (time < endScheduleTime && conflictsExist(a1, time, timeRemaining )) {
-			time ++; 
-		}
-		if (time >= endScheduleTime) {
-			/* no conflict time available */
-			results.add(new ScheduleTime(time,time));
-			return results;
-		} 
-		
-		if (isAvailable(a1, channel, time, timeRemaining)) {
-			results.add(new ScheduleTime(time,time+timeRemaining-1));
-		} else {
-			var timeAvailable = availableTime(a1,  channel, time);
-			if (timeAvailable > 0) {
-				/* found at least one time slot available */
-//				a1.addAdditionalStartTime(time);
-				results.addAll(findAdditionalTime(channel,time+timeAvailable,a1,timeRemaining-timeAvailable));
-			} else {
-				/* look ahead in time by one unit */
-				results.addAll(findAdditionalTime(channel,time+1,a1,timeRemaining));
+		/* the last time slot that meets the deadline */
+		var latestEndTime = Math.min(releaseTime + next.getDeadline(), endScheduleTime-1);
+
+		/* find the channel on which the slices finish first */
+		var channel = numChannels;
+		ArrayList<ScheduleTime> slices = null;
+		for (int i = 0; i < numChannels; i++) {
+			var channelSlices = findSlices(next, i, startTime, latestEndTime);
+			if (channelSlices != null && (slices == null ||
+					endOf(channelSlices) < endOf(slices))) {
+				channel = i;
+				slices = channelSlices;
+				latestEndTime = endOf(slices) - 1; // only look for earlier finishes
 			}
-			
 		}
-		
-		return results;
-	}
-	
-	
-	private ScheduleLocation findMaxTimeAvailable(Integer time, Activation schedulableObject) {
-		var maxTime = 0;
-		var bestChannel = numChannels;
-		
-		for (int channel = 0; channel < numChannels ; channel++) {
-			var timeAvailable = availableTime(schedulableObject,channel,time);
-			if (timeAvailable > maxTime) {
-				maxTime = timeAvailable;
-				bestChannel = channel;
-			}
+		if (channel == numChannels) {
+			return false; // unable to schedule this entry
 		}
-// TEMP
-		if (maxTime > 0) {
-			System.err.printf("\n\t\tMaxTime is %d and bestChannel is %d\n", maxTime, bestChannel);
+
+		var first = slices.get(0);
+		var endTime = endOf(slices);
+		next.setStartTime(first.getStartTime());
+		next.setEndTime(endTime);
+		/* Add the endTime to the elements endTimes Q
+		 * so that we can track predecessor endTimes
+		 * and make sure successors don't start before
+		 * predecessors
+		 */
+		next.addToEndTimes(endTime);
+		/* remove predecessor end time that matches this start time */
+		if (pred != null) {
+			pred.pollEndTimes();
 		}
-// TEMP
-		return new ScheduleLocation(bestChannel,maxTime);
-	}
-	
-	private Integer availableTime(Activation a1, Integer channel, Integer start) {
-		Integer result = 0;
-		
-		while (isAvailable(a1,channel,start+result,1)) {
-			result++;
+		/* Enter each slice as an entry that knows the slices
+		 * after the first one
+		 */
+		var additionalScheduleTimes = new ArrayList<ScheduleTime>(slices.subList(1, slices.size()));
+		for (ScheduleTime slice: slices) {
+			var entry = new Activation(next, slice.getStartTime());
+			entry.addScheduleTimes(additionalScheduleTimes);
+			entry.setStartTime(slice.getStartTime());
+			entry.setEndTime(slice.getEndTime());
+			setEntries(channel, slice.getStartTime(), slice.getEndTime(), entry);
 		}
-		return result;
+		return true;
 	}
-	
-	private Boolean addToSchedule(Activation next, Integer channel, 
-								Integer startTime, Integer endTime) {
-		var success = true;
-		var combineTime = endScheduleTime;
-		
-		var nextScheduleTime = next.getNextScheduleTime(startTime);
-		var nextStartTime = nextScheduleTime.getStartTime();
-		var nextEndTime = nextScheduleTime.getEndTime();
-		
-		if (startTime >= endScheduleTime || endTime >= endScheduleTime) {
-			/* can't schedule this activation */
-			return false;
-		}
-		
-		if (nextStartTime < Integer.MAX_VALUE && nextEndTime < Integer.MAX_VALUE) {
-			/* add the next slice of execution to the schedule */
-			success = addToSchedule(next,channel,nextStartTime, nextEndTime);
-		}
-		if (!success) {
-			return false;
-		}
-		
-		/* Successful adding next to later points in the schedule.
-		 * So, now we see if this is the last
-		 * 
-		 */
-		if (nextStartTime == Integer.MAX_VALUE && nextEndTime == Integer.MAX_VALUE) {
-			/* this is the last slice of execution, so wrap things up */
-			next.setEndTime(endTime);
-			var responseTime = endTime - next.getReleaseTime();
-			if (responseTime > next.getDeadline()) {
-				return false; // unable to schedule this entry
+
+	/**
+	 * findSlices finds the time slots on channel in which obj can execute
+	 * for its whole duration, starting at startTime. A time slot can be used
+	 * if it is free on channel and no entry on another channel at that time
+	 * conflicts with obj. The search skips each occupied run of the channel
+	 * in one step and stops at latestEndTime.
+	 *
+	 * @return the slices in time order, or null if obj cannot finish
+	 * by latestEndTime on channel
+	 */
+	private ArrayList<ScheduleTime> findSlices(Activation obj, int channel,
+			int startTime, int latestEndTime) {
+		var slices = new ArrayList<ScheduleTime>();
+		var remaining = obj.getExecutionDuration();
+		var time = startTime;
+
+		while (remaining > 0) {
+			time = schedule.firstFreeTime(channel, time, 1);
+			if (time > latestEndTime) {
+				return null;
 			}
-			/* Add the endTime to the elements endTimes Q
-			 * so that we can track predecessor endTimes
-			 * and make sure successors don't start before 
-			 * predecessors
-			 */
-			next.addToEndTimes(endTime); 
-			/* remove predecessor end time that matches this start time */
-			var pred = next.getPredecessor();
-			if (pred != null) {
-				pred.pollEndTimes(); 
+			/* extend the slice to the end of the free run or the first conflict */
+			var freeEnd = Math.min(schedule.nextOccupiedTime(channel, time), latestEndTime+1);
+			var end = time;
+			while (end < freeEnd && remaining > 0 && isUsable(obj, end)) {
+				end++;
+				remaining--;
 			}
-		}
-		/* Create a new entry, based on next, to be entered
-		 * into the scheduling tale
-		 */
-		var entry = new Activation(next, startTime);
-		/* Check to see we need to combine this activation with
-		 * an existing activation in any of the slots. If so,
-		 * save that time so we can update the actual start time
-		 */
-		Activation currentEntry = null;
-		for (int i = startTime; i <= endTime; i++) {
-			currentEntry = schedule.get(channel,i);
-			if (currentEntry != null && next.canCombine(currentEntry)) {
-				/* found an entry to combine, record the time,
-				 * update the combined duration and new
-				 * endTime, then exit the loop
-				 */
-				combineTime = i;
-				// currentEntry = entry;
-				break;
+			if (end > time) {
+				slices.add(new ScheduleTime(time, end-1));
+				time = end;
+			} else {
+				time++; // conflict at time
 			}
 		}
-		entry.setStartTime(startTime); // set start time for this entry
-		entry.setEndTime(endTime); // set end time for this entry
-		if (combineTime < endScheduleTime) {
-			/* change entry to point to combinedActivation
-			 * and set startTime to the beginning of the 
-			 * combined entries */
-			var combinedActivation = new CombinedActivation(currentEntry, entry);
-			entry = combinedActivation;
-			startTime = entry.getStartTime();
-		}
-		for (int i = startTime; i <= endTime; i++) {
-			/* Add this object to the schedule for the
-			 * from startTime to endTime.
-			 */
-			schedule.set(channel, i, entry);
-		}
-		
-		return success;
+		return slices;
 	}
-	
 
-// THIS IS A COPY AND PASTE OF THE ORIGINAL. NEED TO UPDATE TO SUPPORT
-//	THE PREEMPTION IPLEMENTATION THAT ADDS START TIMES WHEN PREEPTED
-	@Override
-	protected Boolean addToSchedule(Activation next) {
-		var channel = getChannelAndSetStartTime(next);
-		if (channel == numChannels) {
+	/**
+	 * isUsable returns true if no entry at time conflicts with obj or
+	 * has the same coordinator as obj.
+	 */
+	private Boolean isUsable(Activation obj, int time) {
+		if (slotConflictExists(obj, time)) {
 			return false;
 		}
-		
-		/* found a time and channel  that are valid */
-		var startTime = next.getStartTime(); // set by getChannelAndSetStartTime()
-		var success = false; 
-		
-// PREEMPT
-		var timeAvailable = availableTime(next, channel, startTime);
-		var duration = next.getExecutionDuration();
-		
-		if (timeAvailable == 0 ) {
-			/* then currentEntry at this location in the schedule
-			 * is not null and we can combine, but best to check
-			 */
-			var currentEntry = schedule.get(channel,startTime);
-			if (currentEntry != null && currentEntry.canCombine(next)) {
-				/* no conflict with this entry, and can
-				 * combine so check for combined entry time
-				 *  to see if we can combine activations
-				 */
-				var combinedDuration = currentEntry.getCombinedExecutionDuration(next);
-				var combinedEntry = new CombinedActivation(currentEntry,next);
-				var searchTime = currentEntry.getEndTime()+1;
-				var searchLength = combinedDuration - duration;
-				if (isAvailable(combinedEntry, channel, searchTime, searchLength)) {
-					timeAvailable = combinedDuration;
-					duration = combinedDuration;
-				}
+		for (int channel = 0; channel < numChannels; channel++) {
+			var entry = schedule.get(channel, time);
+			if (entry != null && entry.sharesCoordinator(obj)) {
+				return false;
 			}
 		}
-			if (duration <= timeAvailable) {
-				/* can execute without preemption */
-				var endTime = startTime+duration-1;
-				success = addToSchedule(next,channel,startTime,endTime);
-			} else {
-				/* Recursively add 'slices' to the schedule.
-				 * success == true => all slices added successfully
-				 * otherwise, none of the slices were added
-				 */
-				var endTime = startTime + timeAvailable-1;
-				success = addToSchedule(next,channel,startTime,endTime);
-			}
-		return success;
+		return true;
+	}
+
+	private static int endOf(ArrayList<ScheduleTime> slices) {
+		return slices.get(slices.size()-1).getEndTime();
 	}
 }
@@ -0,0 +1,91 @@
+package edu.uiowa.cs.warp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests PreemptiveSchedule on Preempt1.txt with one channel, where F1:D only
+ * meets its deadline if F0:A preempts it.
+ */
+class PreemptiveScheduleTest {
+
+	private static final Integer CHANNELS = 1;
+	private static final Integer NODE_D = 3; // program column of node D
+
+	private WorkLoad workload;
+
+	@BeforeEach
+	public void setUp() {
+		workload = new WorkLoad(0, 0.9, 0.99, "Preempt1.txt");
+		workload.setFlowsInPriorityOrder();
+	}
+
+	@Test
+	void testNotSchedulableWithoutPreemption() {
+		var schedule = new NonPreemptiveSchedule(new ConnectivityPoset(workload), CHANNELS);
+		assertFalse(schedule.schedulable);
+	}
+
+	@Test
+	void testPreemptedActivationRunsInSlices() {
+		var schedule = new PreemptiveSchedule(new ConnectivityPoset(workload), CHANNELS);
+		assertTrue(schedule.schedulable);
+		var table = schedule.getSchedule();
+		var firstSlice = table.get(0, 2);
+		var lastSlice = table.get(0, 8);
+		assertEquals("F1:D", firstSlice.getName());
+		assertEquals("F1:D", lastSlice.getName());
+		assertNotSame(firstSlice, lastSlice);
+		assertTrue(firstSlice.isPreempted());
+		assertEquals(firstSlice.getExecutionDuration(), firstSlice.getRemainingExecutionTime());
+		assertEquals(1, lastSlice.getRemainingExecutionTime());
+		/* F0:A preempts F1:D at its next release */
+		assertEquals("F0:A", table.get(0, 6).getName());
+	}
+
+	@Test
+	void testProgramContinuesPreemptedCode() {
+		var schedule = new PreemptiveSchedule(new ConnectivityPoset(workload), CHANNELS);
+		var program = schedule.toProgram();
+		var entry = schedule.getSchedule().get(0, 2);
+		var code = new CodeFragment(entry.getDelta(), entry.getEdges(), entry.getCoordinators(),
+				0, nodeIndexMap());
+		var instructions = code.instructions();
+		var last = instructions.size() - 1;
+		for (int i = 0; i < last; i++) {
+			assertEquals(instructions.get(i).toString(), program.getInstruction(2 + i, NODE_D).toString());
+		}
+		assertEquals(instructions.get(last).toString(), program.getInstruction(8, NODE_D).toString());
+		assertEquals(Instruction.sleep().toString(), program.getInstruction(6, NODE_D).toString());
+	}
+
+	@Test
+	void testCoordinatorConflictAfterFirstTimeSlot() {
+		var schedule = new PreemptiveSchedule(new ConnectivityPoset(workload), 2);
+		var table = schedule.getSchedule();
+		var activation = new Activation("X");
+		activation.addCoordinator("A");
+		var other = new Activation("Y");
+		other.addCoordinator("A");
+		for (int channel = 0; channel < 2; channel++) {
+			table.set(channel, 0, 1, null);
+		}
+		/* Y shares coordinator A with X in the second time slot on the other channel */
+		table.set(1, 1, 1, other);
+		assertTrue(schedule.freeOfCoordinatorConflicts(activation, 0, 0, 1));
+		assertFalse(schedule.freeOfCoordinatorConflicts(activation, 0, 0, 2));
+	}
+
+	private HashMap<String, Integer> nodeIndexMap() {
+		var nodeIndexMap = new HashMap<String, Integer>();
+		var nodeNames = workload.getNodeNamesOrderedAlphabetically();
+		for (int i = 0; i < nodeNames.length; i++) {
+			nodeIndexMap.put(nodeNames[i], i);
+		}
+		return nodeIndexMap;
+	}
+}
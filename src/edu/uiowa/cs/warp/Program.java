@@ -1,6 +1,8 @@
 package edu.uiowa.cs.warp;
 
-import edu.uiowa.cs.utilities.Utilities;
+import edu.uiowa.cs.warp.Instruction.Action;
+import edu.uiowa.cs.warp.Instruction.Command;
+import edu.uiowa.cs.warp.Instruction.Guard;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -15,8 +17,6 @@ public class Program implements SystemAttributes {
 
   private static final String UNKNOWN = "Unknown";
   private static final String SLEEP_INSTRUCTION = "sleep";
-  private static final String WAIT_FRAGMENT = "wait(";
-  private static final String ELSE_PULL_FRAGMENT = "else pull(";
 
   // Global flags and data structures
   // FileManager wfm; // class to provide basic WARP file management functions
@@ -30,6 +30,9 @@ public class Program implements SystemAttributes {
   Boolean optimizationRequested;
   Channels channelsAvailable; // channels available for each time slot
   Integer nChannels;
+  HashMap<String, Integer> nodeIndex; // node name to column index in the schedule
+  ArrayList<String> flowNamesInPriorityOrder; // the order in which this program schedules flows
+  int[] nodeChannels; // last channel used by each node (column) in this program
   Boolean verbose;
   Boolean reportLatency;
   private Description deadlineMisses;
@@ -50,7 +53,8 @@ public class Program implements SystemAttributes {
     this.workLoad = workLoad; // flows for which schedules will be built
     this.scheduleBuilt = new ProgramSchedule();
     this.SchedulerSelected = ScheduleChoices.PRIORITY; // set the type of scheduler selected
-    workLoad.setFlowsInPriorityOrder();
+    this.flowNamesInPriorityOrder = workLoad.getFlowNamesSortedByPriority();
+    this.nodeChannels = new int[0];
     this.schedulerName = "Priority";
     this.schChoice = "Priority";
     this.nTransmissions = 0;
@@ -100,14 +104,15 @@ public class Program implements SystemAttributes {
         newProgram = schedule2.toProgram();
         setSchedule(newProgram); // store the schedule built
         break;
-      //// case CONNECTIVITY_POSET_PREEMPTIVE_PRIORITY: // fall through
-      //// case CONNECTIVITY_POSET_PREEMPTIVE_RM: // fall through
-      //// case CONNECTIVITY_POSET_PREEMPTIVE_DM: // fall through
-      // var poset3 = new ConnectivityPoset(workLoad);
-      // var schedule3 = new PreemptiveSchedule(poset3, this.nChannels);
-      // newProgram = schedule3.toProgram();
-      // setSchedule(newProgram); // store the schedule built
-      // break;
+      case CONNECTIVITY_POSET_PREEMPTIVE_PRIORITY: // fall through
+      case CONNECTIVITY_POSET_PREEMPTIVE_RM: // fall through
+      case CONNECTIVITY_POSET_PREEMPTIVE_DM:
+        setScheduleSelected(choice);
+        var poset3 = new ConnectivityPoset(workLoad);
+        var schedule3 = new PreemptiveSchedule(poset3, this.nChannels);
+        newProgram = schedule3.toProgram();
+        setSchedule(newProgram); // store the schedule built
+        break;
       case PRIORITY:
         selectPriority();
         buildOriginalProgram(); // build the requested schedule
@@ -160,22 +165,36 @@ public class Program implements SystemAttributes {
     Boolean realtimeHART = getRealTimeHartFlag();
     var optimizationRequested = getOptimizationFlag();
     var schedule = new ProgramSchedule(); // create an empty schedule
-    var newInstruction = SLEEP_INSTRUCTION; // initialize the new Instruction with a sleep
-    var prioritizedFlows = workLoad.getFlowNamesInPriorityOrder();
+    var newInstruction = Instruction.sleep(); // initialize the new Instruction with a sleep
+    var prioritizedFlows = flowNamesInPriorityOrder;
     // var orderedNodes = workLoad.getNodeNamesOrderedAlphabetically(); // create an array of node
     // names
     // sorted alphabetically
-    var nodeIndex = getNodeMapIndex(); // get the mapping from node names to index in schedule
+    nodeIndex = getNodeMapIndex(); // get the mapping from node names to index in schedule
+    nodeChannels = new int[nodeIndex.size()]; // nodes start from the channel of the WorkLoad's node
+    for (var entry : nodeIndex.entrySet()) {
+      nodeChannels[entry.getValue()] = workLoad.getNodeChannel(entry.getKey());
+    }
     var nNodes = nodeIndex.size();
     /*
      * for (int index = 0; index < nNodes; index++) { // set up the node to index mapping var name =
      * orderedNodes[index]; nodeIndex.put(name, index); // add name, index mapping to NodeIndex map
      * }
      */
-    var hyperPeriod = workLoad.getHyperPeriod();
+    var longHyperPeriod = workLoad.getLongHyperPeriod();
+    if (longHyperPeriod > Schedule.MAX_SCHEDULE_TIME) { // too long to build, so build nothing
+      String msg = String.format(
+          "ERROR: a program of %d time slots is longer than the %d time slots that can be scheduled.\n",
+          longHyperPeriod, Schedule.MAX_SCHEDULE_TIME);
+      System.err.print("\n\t" + msg);
+      deadlineMisses.add(msg); // no flow meets its deadline in the empty program
+      setSchedule(schedule);
+      return;
+    }
+    var hyperPeriod = (int) longHyperPeriod;
     for (int i = 0; i < hyperPeriod; i++) { // This loop makes sure the schedule is full up to the
                                             // period and the channels entries are all initialized
-      var newInstructionTimeSlot = new InstructionTimeSlot(nNodes, SLEEP_INSTRUCTION); // create a
+      var newInstructionTimeSlot = new Row<Instruction>(nNodes, Instruction.sleep()); // create a
                                                                                        // time slot
                                                                                        // for
                                                                                        // nNodes,
@@ -183,13 +202,10 @@ public class Program implements SystemAttributes {
                                                                                        // initialized
                                                                                        // with a
                                                                                        // SLEEP_INSTRUCTION
-      schedule.add(newInstructionTimeSlot);
+      schedule.addTimeSlot(newInstructionTimeSlot);
       channelsAvailable.addNewChannelSet();// initially, all channels are available in each time
                                            // slot
     }
-    // create an instance of the Warp DSL class for parsing instructions
-    var dsl = new WarpDSL();
-
     for (String flowName : prioritizedFlows) { // loop through all of the nodes in priority order
       var nodesInFlow = workLoad.getNodesInFlow(flowName);
       var nNodesInFlow = nodesInFlow.length;
@@ -254,7 +270,7 @@ public class Program implements SystemAttributes {
                                                       // flow meets desired reliability
             var instructionNodeName = currentNodeName; // name of node for which we write an
                                                        // instruction in its program
-            var priorSrcInstruction = UNKNOWN; // variable used to store and possibly update the
+            Instruction priorSrcInstruction = null; // variable used to store and possibly update the
                                                // priorSrcInstruction during optimization
             var priorSrcUpdated = false; // flag to indicate if priorSrcInstruction is updated or
                                          // not
@@ -278,7 +294,7 @@ public class Program implements SystemAttributes {
                                                        // schedule length. Increase schedule and
                                                        // channelsAvailable tables
               for (int i = schedule.size(); i <= instructionIndex; i++) {
-                var newInstructionTimeSlot = new InstructionTimeSlot(nNodes, SLEEP_INSTRUCTION); // create
+                var newInstructionTimeSlot = new Row<Instruction>(nNodes, Instruction.sleep()); // create
                                                                                                  // a
                                                                                                  // time
                                                                                                  // slot
@@ -289,14 +305,14 @@ public class Program implements SystemAttributes {
                                                                                                  // with
                                                                                                  // a
                                                                                                  // SLEEP_INSTRUCTION
-                schedule.add(newInstructionTimeSlot);
+                schedule.addTimeSlot(newInstructionTimeSlot);
                 channelsAvailable.addNewChannelSet(); // need make sure we have channels available
                                                       // for all slots. instructionIndex may be >
                                                       // initialized size of array because of
                                                       // phases...
               }
             }
-            String channel = findNextAvailableChannel(schedule, instructionNodeName,
+            int channel = findNextAvailableChannel(schedule, nodeIndex.get(instructionNodeName),
                 instructionIndex, nodeIndex.get(currentNodeName), nodeIndex.get(snk));
 
             // Now check if we have a valid channel. If not we need to find a new time slot further
@@ -307,7 +323,7 @@ public class Program implements SystemAttributes {
             // down the schedule.
             // So, initialize the search to start at the current slot and then increase by one each
             // time we loop if the current slot
-            while (channel.equals(UNKNOWN)) { // findNextAvailableChannel will return UNKNOWN if no
+            while (channel == Channels.NO_CHANNEL) { // findNextAvailableChannel returns NO_CHANNEL if no
                                               // channel was available. In that case, we need to
                                               // find a new slot for this instruction after the last
                                               // index found
@@ -320,7 +336,7 @@ public class Program implements SystemAttributes {
                                                          // schedule lenght. Increase schedule and
                                                          // channelsAvailable tables
                 for (int i = schedule.size(); i <= instructionIndex; i++) {
-                  var newInstructionTimeSlot = new InstructionTimeSlot(nNodes, SLEEP_INSTRUCTION); // create
+                  var newInstructionTimeSlot = new Row<Instruction>(nNodes, Instruction.sleep()); // create
                                                                                                    // a
                                                                                                    // time
                                                                                                    // slot
@@ -331,17 +347,18 @@ public class Program implements SystemAttributes {
                                                                                                    // with
                                                                                                    // a
                                                                                                    // SLEEP_INSTRUCTION
-                  schedule.add(newInstructionTimeSlot);
+                  schedule.addTimeSlot(newInstructionTimeSlot);
                   channelsAvailable.addNewChannelSet(); // need make sure we have channels available
                                                         // for all slots. instructionIndex may be >
                                                         // initialized size of array because of
                                                         // phases...
                 }
               }
-              channel = findNextAvailableChannel(schedule, instructionNodeName, instructionIndex,
+              channel = findNextAvailableChannel(schedule, nodeIndex.get(instructionNodeName),
+                  instructionIndex,
                   nodeIndex.get(currentNodeName), nodeIndex.get(snk));
             }
-            workLoad.setNodeChannel(instructionNodeName, Integer.valueOf(channel));
+            setNodeChannel(nodeIndex.get(instructionNodeName), channel);
             if (realtimeHART) {
               newInstruction = pushInstruction(flowName, currentNodeName, snk, channel);
             } else {
@@ -350,9 +367,9 @@ public class Program implements SystemAttributes {
 
             // if optimization flag is set, look to see if any optimizations are possible
             if (optimizationRequested && instructionIndex > 0) {
-              var priorInstructionTimeSlotArrayList = schedule.get(instructionIndex - 1);
+              var priorInstructionTimeSlotArrayList = schedule.getTimeSlot(instructionIndex - 1);
               var priorInstructionTimeSlot = priorInstructionTimeSlotArrayList
-                  .toArray(new String[priorInstructionTimeSlotArrayList.size()]);
+                  .toArray(new Instruction[priorInstructionTimeSlotArrayList.size()]);
               var priorInstruction = priorInstructionTimeSlot[nodeIndex.get(snk)]; // get
                                                                                    // instruction
                                                                                    // scheduled for
@@ -360,10 +377,8 @@ public class Program implements SystemAttributes {
                                                                                    // in the prior
                                                                                    // time slot
               if (index == (nTx - 1)) {
-                String hasSubstring = String.format("if has(%s", flowName);
-                String elseSubString = "else pull(";
-                if (priorInstruction.contains(hasSubstring)
-                    && !priorInstruction.contains(elseSubString) && !realtimeHART) {
+                if (hasFlowGuard(priorInstruction, flowName)
+                    && !priorInstruction.containsElse(Command.PULL) && !realtimeHART) {
                   // The sink node is not waiting, so add this instruction as an else to it
                   // Also need to make sure we haven't already combined a prior instruction by
                   // moving it to the else clause. May need a smater way to do this later...
@@ -372,9 +387,8 @@ public class Program implements SystemAttributes {
                   // get a new channel for that time slot and put back the channel we extraced from
                   // this time slot. And of course, clean up if any errors occur
                   // in the process
-                  var instructionParametersArrayList =
-                      dsl.getInstructionParameters(priorInstruction);
-                  var priorInstructionChannel = UNKNOWN;
+                  var instructionParametersArrayList = priorInstruction.getActions();
+                  var priorInstructionChannel = Channels.NO_CHANNEL;
                   if (instructionParametersArrayList.size() == 1) {
                     var instructionParameters = instructionParametersArrayList.get(0); // get a copy
                                                                                        // of the
@@ -387,22 +401,21 @@ public class Program implements SystemAttributes {
                         priorInstruction);
                     System.err.println(msg);
                   }
-                  workLoad.setNodeChannel(instructionNodeName,
-                      Integer.valueOf(priorInstructionChannel));
+                  setNodeChannel(nodeIndex.get(instructionNodeName), priorInstructionChannel);
                   channelsAvailable.addChannel(instructionIndex, channel); // return channel for
                                                                            // this slot
                   channel = priorInstructionChannel; // update this so that the corresponding wait
                                                      // uses this channel
-                  newInstruction = priorInstruction + String.format("else pull(%s: %s -> %s, #%s)",
-                      flowName, currentNodeName, snk, priorInstructionChannel); // was channel
+                  newInstruction = priorInstruction.orElse(
+                      elsePullClause(flowName, currentNodeName, snk, priorInstructionChannel));
                   instructionIndex -= 1; // set instructionIndex to the priorInstruction index so we
                                          // replace that slot with the new, optimized instruction
                   instructionNodeName = snk; // change currntNodeName to the snk node, which is the
                                              // node name of the prior instruction
                 }
               } else if ((flowNodeIndex == 0 && index == 0 && e2eFlag)
-                  && !(priorInstruction.contains(SLEEP_INSTRUCTION)
-                      || priorInstruction.contains(WAIT_FRAGMENT))) {
+                  && !(priorInstruction.contains(Command.SLEEP)
+                      || priorInstruction.contains(Command.WAIT))) {
                 // We hit this case when combining the last push of one flow with the first push of
                 // a new flow--making an if has (Fi) push(Fi) else pull pull(Fi+1)
                 // print ("Skipping optimization of combining \(priorInstruction) with
@@ -415,9 +428,9 @@ public class Program implements SystemAttributes {
               } else { // not sure when we hit this when combining a sleep or wait() from prior flow
                        // with a new instruction
                 // Anywhere else? :-) Probably better figure it out!!
-                if (!priorInstruction.contains(ELSE_PULL_FRAGMENT)
-                    && !priorInstruction.contains(WAIT_FRAGMENT)
-                    && !priorInstruction.contains(SLEEP_INSTRUCTION) && !realtimeHART) { // The sink
+                if (!priorInstruction.containsElse(Command.PULL)
+                    && !priorInstruction.contains(Command.WAIT)
+                    && !priorInstruction.contains(Command.SLEEP) && !realtimeHART) { // The sink
                                                                                          // node is
                                                                                          // not
                                                                                          // waiting,
@@ -429,9 +442,8 @@ public class Program implements SystemAttributes {
                                                                                          // it
                   // Also need to make sure we haven't already combined a prior instruction by
                   // moving it to the else clause. May need a smarter way to do this later...
-                  var instructionParametersArrayList =
-                      dsl.getInstructionParameters(priorInstruction);
-                  var priorInstructionChannel = UNKNOWN;
+                  var instructionParametersArrayList = priorInstruction.getActions();
+                  var priorInstructionChannel = Channels.NO_CHANNEL;
                   var priorInstructionSnk = UNKNOWN;
                   if (instructionParametersArrayList.size() == 1) {
                     var instructionParameters = instructionParametersArrayList.get(0); // get a copy
@@ -462,13 +474,13 @@ public class Program implements SystemAttributes {
                                                                      // use the prior instruction
                                                                      // channel
                     newInstruction = priorInstruction
-                        + elsePullClause(flowName, currentNodeName, snk, priorInstructionChannel);
+                        .orElse(elsePullClause(flowName, currentNodeName, snk, priorInstructionChannel));
                     instructionIndex -= 1; // set instructionIndex to the priorInstruction index so
                                            // we replace that slot with the new, optimized
                                            // instruction
                     instructionNodeName = snk; // change currntNodeName to the snk node, which is
                                                // the node name of the prior instruction
-                  } else if (priorSrcInstruction.contains(SLEEP_INSTRUCTION)) { // was
+                  } else if (priorSrcInstruction.contains(Command.SLEEP)) { // was
                                                                                 // !priorSrcInstruction.contains("wait(");
                                                                                 // I think it needs
                                                                                 // to be a sleep and
@@ -477,10 +489,9 @@ public class Program implements SystemAttributes {
                     // Make sure the currentNodeName entry for this time slot has a sleep. If so,
                     // then we combine instructions with new as an else push and add wait at
                     // currentNodeName
-                    workLoad.setNodeChannel(instructionNodeName,
-                        Integer.valueOf(priorInstructionChannel));
+                    setNodeChannel(nodeIndex.get(instructionNodeName), priorInstructionChannel);
                     newInstruction = priorInstruction
-                        + elsePullClause(flowName, currentNodeName, snk, priorInstructionChannel); // was
+                        .orElse(elsePullClause(flowName, currentNodeName, snk, priorInstructionChannel)); // was
                                                                                                    // channel
                     // need to change priorSrcInstruction from sleep to wait on channel
                     priorSrcInstruction = waitInstruction(priorInstructionChannel); // was channel
@@ -496,15 +507,15 @@ public class Program implements SystemAttributes {
                 }
               }
             }
-            ArrayList<String> currentInstructionTimeSlotArrayList; // =
+            ArrayList<Instruction> currentInstructionTimeSlotArrayList; // =
                                                                    // schedule.get(instructionIndex);
-            String[] currentInstructionTimeSlot; // =
+            Instruction[] currentInstructionTimeSlot; // =
                                                  // currentInstructionTimeSlotArrayList.toArray(new
                                                  // String[currentInstructionTimeSlotArrayList.size()]);
             currentNodeInstruction[index] = instructionIndex; // store the slot index for this
                                                               // instruction
             if (instructionIndex < schedule.size()) {
-              currentInstructionTimeSlotArrayList = schedule.get(instructionIndex); // load current
+              currentInstructionTimeSlotArrayList = schedule.getTimeSlot(instructionIndex); // load current
                                                                                     // instruction,
                                                                                     // in case
                                                                                     // another
@@ -516,12 +527,12 @@ public class Program implements SystemAttributes {
                                                                                     // conflict
                                                                                     // channels
               currentInstructionTimeSlot = currentInstructionTimeSlotArrayList
-                  .toArray(new String[currentInstructionTimeSlotArrayList.size()]);
+                  .toArray(new Instruction[currentInstructionTimeSlotArrayList.size()]);
             } else {
               currentInstructionTimeSlotArrayList =
-                  new InstructionTimeSlot(nNodes, SLEEP_INSTRUCTION);
+                  new Row<Instruction>(nNodes, Instruction.sleep());
               currentInstructionTimeSlot = currentInstructionTimeSlotArrayList
-                  .toArray(new String[currentInstructionTimeSlotArrayList.size()]);
+                  .toArray(new Instruction[currentInstructionTimeSlotArrayList.size()]);
             }
             currentInstructionTimeSlot[nodeIndex.get(instructionNodeName)] = newInstruction; // an
                                                                                              // error
@@ -559,15 +570,12 @@ public class Program implements SystemAttributes {
                                                                                  // snk to execute
                                                                                  // in the current
                                                                                  // time slot
-            if (snkInstruction.equals(SLEEP_INSTRUCTION)) {
+            if (snkInstruction.isSleep()) {
               currentInstructionTimeSlot[nodeIndex.get(snk)] = waitInstruction(channel);
             }
             if (flowNodeIndex > 0) {
               var priorNodeName = nodesInFlow[flowNodeIndex - 1];// get name of prior node in the
                                                                  // flow (aka predecessor)
-              var possibleCombineInstruction =
-                  String.format("if has(%1$s) push(%1$s: %2$s -> %3$s, #", flowName, priorNodeName,
-                      currentNodeName);
               if (optimizationRequested && !realtimeHART && nTx > 1) { // One more optimization
                                                                        // possible: combine two
                                                                        // conditional pushes at the
@@ -577,11 +585,10 @@ public class Program implements SystemAttributes {
                     currentInstructionTimeSlot[nodeIndex.get(priorNodeName)];
                 var instr = hasPushInstruction(flowName, currentNodeName, snk, channel);
                 if (newInstruction.equals(instr)
-                    && upstreamNodeInstruction.contains(possibleCombineInstruction)
-                    && !upstreamNodeInstruction.contains("else")) {
-                  var instructionParametersArrayList =
-                      dsl.getInstructionParameters(upstreamNodeInstruction);
-                  var upstreamNodeChannel = UNKNOWN;
+                    && hasFlowPush(upstreamNodeInstruction, flowName, priorNodeName, currentNodeName)
+                    && upstreamNodeInstruction.size() == 1) {
+                  var instructionParametersArrayList = upstreamNodeInstruction.getActions();
+                  var upstreamNodeChannel = Channels.NO_CHANNEL;
                   if (instructionParametersArrayList.size() == 1) {
                     var instructionParameters = instructionParametersArrayList.get(0); // get a copy
                                                                                        // of the
@@ -599,7 +606,7 @@ public class Program implements SystemAttributes {
                   // use the newInstruction channel in upstream instruction that is being combined
                   // and return the upstream channel to the available channel set
                   newInstruction = newInstruction
-                      + elsePullClause(flowName, priorNodeName, currentNodeName, channel); // was
+                      .orElse(elsePullClause(flowName, priorNodeName, currentNodeName, channel)); // was
                                                                                            // upstreamNodeChannel
                   currentInstructionTimeSlot[nodeIndex.get(instructionNodeName)] = newInstruction; // an
                                                                                                    // error
@@ -620,9 +627,9 @@ public class Program implements SystemAttributes {
                                                  // in location of snk or 0 // was
                                                  // upstreamNodeChannel
                 } else if (newInstruction
-                    .contains(elsePullClause(flowName, priorNodeName, currentNodeName, channel))
-                    && currentInstructionTimeSlot[nodeIndex.get(priorNodeName)]
-                        .contains(possibleCombineInstruction)) {
+                    .containsElse(elsePullClause(flowName, priorNodeName, currentNodeName, channel))
+                    && hasFlowPush(currentInstructionTimeSlot[nodeIndex.get(priorNodeName)],
+                        flowName, priorNodeName, currentNodeName)) {
                   currentInstructionTimeSlot[nodeIndex.get(priorNodeName)] =
                       waitInstruction(channel); // Replace combined instruction in prior node
                                                 // program with wait()
@@ -635,10 +642,10 @@ public class Program implements SystemAttributes {
                     currentInstructionTimeSlot[nodeIndex.get(priorNodeName)];
                 if (newInstruction
                     .equals(hasPushInstruction(flowName, currentNodeName, snk, channel))
-                    && upstreamNodeInstruction.contains(possibleCombineInstruction)) {
-                  String upstreamNodeChannel =
-                      getFirstChannelInInstruction(upstreamNodeInstruction);
-                  newInstruction = newInstruction + elseWaitInstruction(upstreamNodeChannel); // this
+                    && hasFlowPush(upstreamNodeInstruction, flowName, priorNodeName,
+                        currentNodeName)) {
+                  int upstreamNodeChannel = getFirstChannelInInstruction(upstreamNodeInstruction);
+                  newInstruction = newInstruction.orElse(elseWaitInstruction(upstreamNodeChannel)); // this
                                                                                               // node
                                                                                               // needs
                                                                                               // to
@@ -669,12 +676,12 @@ public class Program implements SystemAttributes {
                 }
               }
             }
-            var timeSlot = new InstructionTimeSlot(currentInstructionTimeSlot);
+            var timeSlot = new Row<Instruction>(currentInstructionTimeSlot);
             if (instructionIndex < schedule.size()) { // This should always be the case, but check
                                                       // anyway
-              schedule.set(instructionIndex, timeSlot);
+              schedule.setTimeSlot(instructionIndex, timeSlot);
             } else {
-              schedule.add(timeSlot);
+              schedule.addTimeSlot(timeSlot);
               String msg = String.format(
                   "ERROR: instructionIndex = %d > schedule length = %d. Appended instruction to avoid crash or throw...",
                   instructionIndex, schedule.size());
@@ -711,43 +718,63 @@ public class Program implements SystemAttributes {
     setSchedule(schedule); // store the schedule built
   }
 
-  private String waitInstruction(String channel) {
-    var size = channel.length();
-    if (!Utilities.isInteger(channel)) {
-      System.out.println("channel length is " + String.valueOf(size));
-      System.err.println("ERROR: channel is not an Integer: " + channel);
+  private Instruction waitInstruction(int channel) {
+    if (channel == Channels.NO_CHANNEL) {
+      System.err.println("ERROR: no channel to wait on");
     }
-    return String.format("wait(#%s)", channel);
+    return Instruction.waitOn(channel);
   }
 
 
-  private String elseWaitInstruction(String channel) {
-    var size = channel.length();
-    if (!Utilities.isInteger(channel)) {
-      System.err.println("ERROR: channel is not an Integer: " + channel);
-      System.err.println("\t channel size is not an Integer: " + String.valueOf(size));
+  private Action elseWaitInstruction(int channel) {
+    if (channel == Channels.NO_CHANNEL) {
+      System.err.println("ERROR: no channel to wait on");
     }
-    return String.format(" else wait(#%s)", channel);
+    return Action.waitOn(channel);
+  }
+
+  private Action elsePullClause(String flow, String src, String snk, int channel) {
+    return Action.pull(Guard.NONE, flow, src, nodeIndex.get(src), snk, nodeIndex.get(snk),
+        channel);
   }
 
-  private String elsePullClause(String flow, String src, String snk, String channel) {
-    return String.format(" else pull(%s: %s -> %s, #%s)", flow, src, snk, channel);
+  private Instruction hasPushInstruction(String flow, String src, String snk, int channel) {
+    return Instruction.of(Action.push(Guard.HAS_FLOW, flow, src, nodeIndex.get(src), snk,
+        nodeIndex.get(snk), channel));
   }
 
-  private String hasPushInstruction(String flow, String src, String snk, String channel) {
-    return String.format("if has(%1$s) push(%1$s: %2$s -> %3$s, #%4$s)", flow, src, snk, channel);
+  private Instruction pushInstruction(String flow, String src, String snk, int channel) {
+    return Instruction.of(Action.push(Guard.NONE, flow, src, nodeIndex.get(src), snk,
+        nodeIndex.get(snk), channel));
   }
 
-  private String pushInstruction(String flow, String src, String snk, String channel) {
-    return String.format("push(%1$s: %2$s -> %3$s, #%4$s)", flow, src, snk, channel);
+  private int getFirstChannelInInstruction(Instruction instruction) {
+    return instruction.firstAction().getChannel(); // the 1st channel
   }
 
-  private String getFirstChannelInInstruction(String Instruction) {
-    var beginIndex = Instruction.indexOf('#') + 1; // get index of the start of the channel #
-    var endIndex = Instruction.indexOf(')', beginIndex); // get index of the last character of the
-                                                         // channel #
-    var channel = Instruction.substring(beginIndex, endIndex); // this substring has the 1st channel
-    return channel;
+  /**
+   * @return true if an action in instruction is guarded by has(flow)
+   */
+  private Boolean hasFlowGuard(Instruction instruction, String flow) {
+    for (Action action : instruction.getActions()) {
+      if (action.getGuard() == Guard.HAS_FLOW && action.getFlow().equals(flow)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return true if instruction contains if has(flow) push(flow: src -> snk, #c) for any c
+   */
+  private Boolean hasFlowPush(Instruction instruction, String flow, String src, String snk) {
+    for (Action action : instruction.getActions()) {
+      if (action.getGuard() == Guard.HAS_FLOW && action.getCommand() == Command.PUSH
+          && action.transmits(flow, src, snk)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   private Integer findNextAvailableInstructionTimeSlot(ProgramSchedule schedule,
@@ -768,18 +795,10 @@ public class Program implements SystemAttributes {
                                                                                      // instruction
                                                                                      // we inserted
     }
-    var done = false; // Flag indicating time slot search is done
     if (realtimeHART || (nTx == 1 || nodeInFlow == 0 || transIndex >= nTx - 1)) {
       // do the same thing for all nodes when nTx == 1 as for first node of flow when nTx == 1 and
       // for kth retry
-      while (currentTime < schedule.size() && !done) {
-        var currentInstructionTimeSlot = schedule.get(currentTime);
-        if (slotIsAvailable(currentInstructionTimeSlot, srcNodeIndex, snkNodeIndex)) {
-          done = true;
-        } else {
-          currentTime += 1;
-        }
-      }
+      currentTime = schedule.nextSleepingTimeSlot(currentTime, srcNodeIndex, snkNodeIndex);
     } else { // !reatimeHART and (nTx > 1 and nodeInFlow > 0)
       Integer slotOffsetFromLastPreviousInstructionEntry;
       if (transIndex >= (previousNodeInstruction.length - 1)) {
@@ -796,53 +815,13 @@ public class Program implements SystemAttributes {
           // unavailability)
           currentTime = possibleInstructionTimeSlotIndex; // OK to update to this time slot index
         }
-        done = false; // However, we need to check if the current slot is available, and if not keep
-                      // searching until we find one. This happens with preemptions
+        // However, we need to check if the current slot is available, and if not keep
+        // searching until we find one. This happens with preemptions
         if (!optimizationRequested) {
-          while (currentTime < schedule.size() && !done) {
-            var currentInstructionTimeSlot = schedule.get(currentTime);
-            if (slotIsAvailable(currentInstructionTimeSlot, srcNodeIndex, snkNodeIndex)) { // get
-                                                                                           // the
-                                                                                           // proposed
-                                                                                           // currentInstructionTimeSlot.
-                                                                                           // If
-                                                                                           // available,
-                                                                                           // done
-                                                                                           // is
-                                                                                           // true,
-                                                                                           // else
-                                                                                           // keep
-                                                                                           // checking
-                                                                                           // for a
-                                                                                           // time
-              done = true;
-            } else {
-              currentTime += 1;
-            }
-          }
+          currentTime = schedule.nextSleepingTimeSlot(currentTime, srcNodeIndex, snkNodeIndex);
         } else {
           // do something to support the optimization
-          while (currentTime < schedule.size() && !done) {
-            var currentInstructionTimeSlot = schedule.get(currentTime);
-            if (slotIsAvailable(currentInstructionTimeSlot, srcNodeIndex, snkNodeIndex)) { // get
-                                                                                           // the
-                                                                                           // proposed
-                                                                                           // currentInstructionTimeSlot.
-                                                                                           // If
-                                                                                           // available,
-                                                                                           // done
-                                                                                           // is
-                                                                                           // true,
-                                                                                           // else
-                                                                                           // keep
-                                                                                           // checking
-                                                                                           // for a
-                                                                                           // time
-              done = true;
-            } else {
-              currentTime += 1;
-            }
-          }
+          currentTime = schedule.nextSleepingTimeSlot(currentTime, srcNodeIndex, snkNodeIndex);
         }
       } else {
         var possibleInstructionTimeSlotIndex = previousNodeInstruction[transIndex + 1]; // same as
@@ -858,39 +837,19 @@ public class Program implements SystemAttributes {
           // unavailability)
           currentTime = possibleInstructionTimeSlotIndex; //
         }
-        done = false; // However, we need to check if the current slot is available, and if not keep
-                      // searching until we find one. This happens with preemptions
+        // However, we need to check if the current slot is available, and if not keep
+        // searching until we find one. This happens with preemptions
         if (!optimizationRequested) {
-          while (currentTime < schedule.size() && !done) {
-            var currentInstructionTimeSlot = schedule.get(currentTime);
-            if (slotIsAvailable(currentInstructionTimeSlot, srcNodeIndex, snkNodeIndex)) { // get
-                                                                                           // the
-                                                                                           // proposed
-                                                                                           // currentInstructionTimeSlot.
-                                                                                           // If
-                                                                                           // available,
-                                                                                           // done
-                                                                                           // is
-                                                                                           // true,
-                                                                                           // else
-                                                                                           // keep
-                                                                                           // checking
-                                                                                           // for a
-                                                                                           // time
-              done = true;
-            } else {
-              currentTime += 1;
-            }
-          }
+          currentTime = schedule.nextSleepingTimeSlot(currentTime, srcNodeIndex, snkNodeIndex);
         } else {
           // do something to support the optimization
           if (currentTime < schedule.size()) { // First make sure we haven't exceeded the current
                                                // schedule table. If so, no need to optimize.
             // Just return current time and let caller figure out what to do.
-            var tmpInstructionTimeSlot = schedule.get(currentTime);
+            var tmpInstructionTimeSlot = schedule.getTimeSlot(currentTime);
             var srcInstruction = tmpInstructionTimeSlot.get(srcNodeIndex);
             var snkInstruction = tmpInstructionTimeSlot.get(snkNodeIndex);
-            if (!srcInstruction.contains("wait(") || !snkInstruction.contains("sleep")) { // instruction
+            if (!srcInstruction.contains(Command.WAIT) || !snkInstruction.contains(Command.SLEEP)) { // instruction
                                                                                           // should
                                                                                           // contain
                                                                                           // a wait,
@@ -910,29 +869,8 @@ public class Program implements SystemAttributes {
                                                                                           // point
               // we also need to be sure the snk is sleeping
               // If either condition is not true, then we need to find another time slot
-              while (currentTime < schedule.size() && !done) {
-                var currentInstructionTimeSlot = schedule.get(currentTime);
-                if (slotIsAvailable(currentInstructionTimeSlot, srcNodeIndex, snkNodeIndex)) { // get
-                                                                                               // the
-                                                                                               // proposed
-                                                                                               // currentInstructionTimeSlot.
-                                                                                               // If
-                                                                                               // available,
-                                                                                               // done
-                                                                                               // is
-                                                                                               // true,
-                                                                                               // else
-                                                                                               // keep
-                                                                                               // checking
-                                                                                               // for
-                                                                                               // a
-                                                                                               // time
-                  done = true;
-                } else {
-                  currentTime += 1;
-                }
-              }
-            } else if (srcInstruction.contains("else(")) { // This should never be the case, but not
+              currentTime = schedule.nextSleepingTimeSlot(currentTime, srcNodeIndex, snkNodeIndex);
+            } else if (srcInstruction.containsElse(Command.WAIT)) { // This should never be the case, but not
                                                            // sure if it is bad...print an error
                                                            // indicating the issue
               var errorString = String.format(
@@ -950,102 +888,65 @@ public class Program implements SystemAttributes {
     return currentTime;
   }
 
-  private Boolean slotIsAvailable(InstructionTimeSlot currentInstructionTimeSlot,
-      Integer srcNodeIndex, Integer snkNodeIndex) {
-    var vacantSlot = false; // assume slot is not vacant ----// Flag indicating time slot search is
-                            // done
-    if (SLEEP_INSTRUCTION.equals(currentInstructionTimeSlot.get(srcNodeIndex))
-        && SLEEP_INSTRUCTION.equals(currentInstructionTimeSlot.get(snkNodeIndex))) { // src and snk
-                                                                                     // are both
-                                                                                     // sleeping, so
-                                                                                     // slot is
-                                                                                     // available
-      vacantSlot = true;
-    }
-    return vacantSlot;
-  }
-
-  private String findNextAvailableChannel(ProgramSchedule schedule, String nodeName,
-      Integer currentTime, Integer srcNodeIndex, Integer snkNodeIndex) {
-
-    var newChannel = UNKNOWN; // indicates no channel was available. The caller will need to check
-                              // this result
-
-    // create an instance of the Warp DSL class for parsing instructions
-    var dsl = new WarpDSL();
-    InstructionTimeSlot priorInstructionTimeSlot;
+  /**
+   * Finds the channel node uses in the time slot currentTime: the first channel after the one
+   * node used last that is available in the slot and not used by the src and snk nodes in the
+   * prior slot.
+   *
+   * @return the channel, or Channels.NO_CHANNEL if none is available
+   */
+  private int findNextAvailableChannel(ProgramSchedule schedule, int node, int currentTime,
+      int srcNodeIndex, int snkNodeIndex) {
 
-    var channels = channelsAvailable.getChannelSet(currentTime);
+    // a copy of the channels available in this time slot, as a bitmask
+    long channels = channelsAvailable.getAvailableChannels(currentTime);
     if (currentTime > 0) { // get the prior schedule time slot to see what channels were used in
                            // that slot, which have to be avoided here
       Integer priorTime = currentTime - 1;
-      priorInstructionTimeSlot = schedule.get(priorTime); // get a copy of the prior time slot
-      var srcPriorInstruction = priorInstructionTimeSlot.get(srcNodeIndex);
-      var snkPriorInstruction = priorInstructionTimeSlot.get(snkNodeIndex);
-
-      // extract the channels used by the src and snk nodes in the prior time slot and store them in
-      // an array
-      var instructionParametersArrayList = dsl.getInstructionParameters(srcPriorInstruction); // get
-                                                                                              // the
-                                                                                              // parameters
-                                                                                              // from
-                                                                                              // the
-                                                                                              // instruction
-                                                                                              // in
-                                                                                              // the
-                                                                                              // src
-                                                                                              // node's
-                                                                                              // prior
-                                                                                              // time
-                                                                                              // slot
-      for (int i = 0; i < instructionParametersArrayList.size(); i++) {
-        var instructionParameters = instructionParametersArrayList.get(i); // get a copy of the
-                                                                           // paramaters
-        channels.remove(instructionParameters.getChannel());
+      Row<Instruction> priorInstructionTimeSlot = schedule.getTimeSlot(priorTime); // get the prior
+                                                                                 // time slot
+      // remove the channels used by the src and snk nodes in the prior time slot
+      for (Action action : priorInstructionTimeSlot.get(srcNodeIndex).getActions()) {
+        channels = Channels.without(channels, action.getChannel());
       }
-      instructionParametersArrayList = dsl.getInstructionParameters(snkPriorInstruction); // get the
-                                                                                          // parameters
-                                                                                          // from
-                                                                                          // the
-                                                                                          // instruction
-                                                                                          // in the
-                                                                                          // snk
-                                                                                          // node's
-                                                                                          // prior
-                                                                                          // time
-                                                                                          // slot
-      for (int i = 0; i < instructionParametersArrayList.size(); i++) {
-        var instructionParameters = instructionParametersArrayList.get(i); // get a copy of the
-                                                                           // paramaters
-        channels.remove(instructionParameters.getChannel());
+      for (Action action : priorInstructionTimeSlot.get(snkNodeIndex).getActions()) {
+        channels = Channels.without(channels, action.getChannel());
       }
     }
-    Integer channel = workLoad.getNodeChannel(nodeName); // get the last used channel for the node
+    int channel = getNodeChannel(node); // get the last used channel for the node
     channel++; // increment the channel because we don't use the same channel in consecutive time
                // slots for the same node
     if (channel >= getNumChannels()) { // valid range is 0..NumChannels-1. Reset when channel hits
                                        // max
       channel = 0;
     }
-    var channelFound = false;
-    while (!channelFound && !channels.isEmpty()) { // loop until a channel is found or we run out of
-                                                   // channels to assign
-      var channelString = String.valueOf(channel);
-      var channelRemoved = channels.remove(channelString);
-      if (channelRemoved) {
-        // newChannel has the channel
-        newChannel = channelString;
-        channelFound = true;
-      } else {
-        // try another channel
-        channel += 1;
-        if (channel >= getNumChannels()) { // valid range is 0..NumChannels-1. Reset when channel
-                                           // hits max
-          channel = 0;
-        }
-      }
-    }
-    return newChannel; // returns UNKNOWN to indicate no channel found. This should never happen.
+    // first available channel at or after channel, wrapping around to 0
+    // NO_CHANNEL indicates no channel was available. The caller will need to check this result.
+    return channelsAvailable.nextAvailableChannel(channels, channel);
+  }
+
+  /**
+   * Records the channel the node in column node last used in this program. The channel is kept by
+   * the program rather than in the WorkLoad's nodes, so programs can be built concurrently from one
+   * WorkLoad.
+   */
+  private void setNodeChannel(int node, int channel) {
+    nodeChannels[node] = channel;
+  }
+
+  /**
+   * @return the channel the node in column node last used in this program, or the channel of the
+   * WorkLoad's node if it has not used a channel yet
+   */
+  private int getNodeChannel(int node) {
+    return nodeChannels[node];
+  }
+
+  /**
+   * @return the names of the flows in the order this program schedules them
+   */
+  public ArrayList<String> getFlowNamesInPriorityOrder() {
+    return flowNamesInPriorityOrder;
   }
 
   public void selectPriority() {
@@ -1069,73 +970,88 @@ public class Program implements SystemAttributes {
       case PRIORITY:
         schedulerName = "Priority";
         schChoice = "-Priority";
-        workLoad.setFlowsInPriorityOrder();
+        flowNamesInPriorityOrder = workLoad.getFlowNamesSortedByPriority();
         break;
       case RM:
         schedulerName = "RateMonotonic";
         schChoice = "-RM";
-        workLoad.setFlowsInRMorder();
+        flowNamesInPriorityOrder = workLoad.getFlowNamesSortedByPeriod();
         break;
       case DM:
         schedulerName = "DeadlineMonotonic";
         schChoice = "-DM";
-        workLoad.setFlowsInDMorder();
+        flowNamesInPriorityOrder = workLoad.getFlowNamesSortedByDeadline();
         break;
       case RTHART:
         schedulerName = "RealtimeHART";
         schChoice = "-RealTimeHART";
-        workLoad.setFlowsInRealTimeHARTorder();
+        flowNamesInPriorityOrder = workLoad.getFlowNamesSortedByPriority();
         setRealTimeHartFlag(true);
         break;
       case CONNECTIVITY_POSET_DM:
         schedulerName = "ConnectivityPosetDM";
         schChoice = "-CPdm";
-        workLoad.setFlowsInDMorder();
+        flowNamesInPriorityOrder = workLoad.getFlowNamesSortedByDeadline();
         break;
       case CONNECTIVITY_POSET_PRIORITY:
         schedulerName = "ConnectivityPoset";
         schChoice = "-CPoset";
-        workLoad.setFlowsInPriorityOrder();
+        flowNamesInPriorityOrder = workLoad.getFlowNamesSortedByPriority();
         break;
       case CONNECTIVITY_POSET_RM:
         schedulerName = "ConnectivityPosetRM";
         schChoice = "-CPrm";
-        workLoad.setFlowsInRMorder();
+        flowNamesInPriorityOrder = workLoad.getFlowNamesSortedByPeriod();
+        break;
+      case CONNECTIVITY_POSET_PREEMPTIVE_DM:
+        schedulerName = "PreemptiveConnectivityPosetDM";
+        schChoice = "-PCPdm";
+        flowNamesInPriorityOrder = workLoad.getFlowNamesSortedByDeadline();
+        break;
+      case CONNECTIVITY_POSET_PREEMPTIVE_PRIORITY:
+        schedulerName = "PreemptiveConnectivityPoset";
+        schChoice = "-PCPoset";
+        flowNamesInPriorityOrder = workLoad.getFlowNamesSortedByPriority();
+        break;
+      case CONNECTIVITY_POSET_PREEMPTIVE_RM:
+        schedulerName = "PreemptiveConnectivityPosetRM";
+        schChoice = "-PCPrm";
+        flowNamesInPriorityOrder = workLoad.getFlowNamesSortedByPeriod();
         break;
       case POSET_DM:
         schedulerName = "PosetDM";
         schChoice = "-PosetDM";
-        workLoad.setFlowsInDMorder();
+        flowNamesInPriorityOrder = workLoad.getFlowNamesSortedByDeadline();
         break;
       case POSET_PRIORITY:
         schedulerName = "Poset";
         schChoice = "-Poset";
-        workLoad.setFlowsInPriorityOrder();
+        flowNamesInPriorityOrder = workLoad.getFlowNamesSortedByPriority();
         break;
       case POSET_RM:
         schedulerName = "PosetRM";
         schChoice = "-PosetDM";
-        workLoad.setFlowsInRMorder();
+        flowNamesInPriorityOrder = workLoad.getFlowNamesSortedByPeriod();
         break;
       case WARP_POSET_DM:
         schedulerName = "WarpPosetDM";
         schChoice = "-WPdm";
-        workLoad.setFlowsInDMorder();
+        flowNamesInPriorityOrder = workLoad.getFlowNamesSortedByDeadline();
         break;
       case WARP_POSET_PRIORITY:
         schedulerName = "WarpPoset";
         schChoice = "-WarpPoset";
-        workLoad.setFlowsInPriorityOrder();
+        flowNamesInPriorityOrder = workLoad.getFlowNamesSortedByPriority();
         break;
       case WARP_POSET_RM:
         schedulerName = "WarpPosetRM";
         schChoice = "-WPrm";
-        workLoad.setFlowsInRMorder();
+        flowNamesInPriorityOrder = workLoad.getFlowNamesSortedByPeriod();
         break;
       default:
         schedulerName = "Priority";
         schChoice = "-Priority";
-        workLoad.setFlowsInPriorityOrder();
+        flowNamesInPriorityOrder = workLoad.getFlowNamesSortedByPriority();
         break;
     }
     SchedulerSelected = choice;
@@ -1,17 +1,151 @@
 package edu.uiowa.cs.warp;
 
-public class ProgramSchedule extends Table<String,InstructionTimeSlot> {
+import java.util.ArrayList;
+import java.util.BitSet;
 
-	private static final long serialVersionUID = 1L;
+/**
+ * ProgramSchedule is the WARP program: one row per time slot and one column
+ * per node (nodes ordered alphabetically), each cell holding a typed
+ * Instruction. The DSL text of a cell is only rendered when it is shown, by
+ * Instruction.toString(). The instructions can only be changed through the
+ * methods of this class, which keep the busy time slots of the nodes up to
+ * date.
+ */
+public class ProgramSchedule {
+
+	/* the instructions of the program, one row per time slot */
+	private Table<Instruction,Row<Instruction>> instructions;
+
+	/* bit t of busyNodes.get(node) is set when node has an instruction other
+	 * than sleep in time slot t, so a search for a slot in which nodes sleep
+	 * skips busy slots with BitSet.nextClearBit
+	 */
+	private ArrayList<BitSet> busyNodes = new ArrayList<BitSet>();
 
 	// default constructor
 	public ProgramSchedule() {
-		super();
+		this.instructions = new Table<Instruction,Row<Instruction>>();
 	}
-	
+
 	ProgramSchedule(Integer row, Integer column) {
-		super(row,column);
+		this.instructions = new Table<Instruction,Row<Instruction>>();
+		for (int i = 0; i < row; i++) {
+			instructions.add(new Row<Instruction>(column, null));
+		}
+	}
+
+	/**
+	 * @return the number of time slots in the program
+	 */
+	public int size() {
+		return instructions.size();
+	}
+
+	/**
+	 * @return the number of time slots in the program
+	 */
+	public Integer getNumRows() {
+		return instructions.getNumRows();
+	}
+
+	/**
+	 * @return the number of nodes in the program
+	 */
+	public Integer getNumColumns() {
+		return instructions.getNumColumns();
+	}
+
+	/**
+	 * Append a time slot to the end of the program.
+	 *
+	 * @param timeSlot the instructions for each node
+	 */
+	public void addTimeSlot(Row<Instruction> timeSlot) {
+		instructions.add(timeSlot);
+		recordTimeSlot(instructions.size()-1, timeSlot);
+	}
+
+	/**
+	 * Replace the time slot at row.
+	 *
+	 * @param row the time slot
+	 * @param timeSlot the instructions for each node
+	 */
+	public void setTimeSlot(Integer row, Row<Instruction> timeSlot) {
+		instructions.set(row, timeSlot);
+		recordTimeSlot(row, timeSlot);
 	}
-	
-}
 
+	/**
+	 * @return the instructions of the time slot at row
+	 */
+	public Row<Instruction> getTimeSlot(Integer row) {
+		return instructions.get(row);
+	}
+
+	/**
+	 * Set the instruction at (row, column).
+	 */
+	public void setInstruction(Integer row, Integer column, Instruction instruction) {
+		instructions.set(row, column, instruction);
+		if (row < instructions.size() && column < instructions.get(row).size()) {
+			recordInstruction(row, column, instruction);
+		}
+	}
+
+	/**
+	 * Finds the first time slot at or after row in which both nodes sleep.
+	 *
+	 * @param row the first time slot to consider
+	 * @param node1 the column of one node
+	 * @param node2 the column of the other node
+	 * @return the time slot found, size() if there is none before the end of the
+	 *         program, or row if row is already past the end
+	 */
+	public int nextSleepingTimeSlot(int row, int node1, int node2) {
+		var numRows = size();
+		if (row >= numRows) {
+			return row;
+		}
+		var busy1 = busySlots(node1);
+		var busy2 = busySlots(node2);
+		while (true) {
+			row = busy1.nextClearBit(row);
+			if (row >= numRows) {
+				return numRows;
+			}
+			var free2 = busy2.nextClearBit(row);
+			if (free2 >= numRows) {
+				return numRows;
+			}
+			if (free2 == row) {
+				return row;
+			}
+			row = free2;
+		}
+	}
+
+	/**
+	 * @return the instruction at (row, column), or null if there is none
+	 */
+	public Instruction getInstruction(Integer row, Integer column) {
+		return instructions.get(row, column);
+	}
+
+	private void recordTimeSlot(int row, Row<Instruction> timeSlot) {
+		for (int column = 0; column < timeSlot.size(); column++) {
+			recordInstruction(row, column, timeSlot.get(column));
+		}
+	}
+
+	private void recordInstruction(int row, int column, Instruction instruction) {
+		busySlots(column).set(row, instruction != null && !instruction.isSleep());
+	}
+
+	private BitSet busySlots(int column) {
+		while (busyNodes.size() <= column) {
+			busyNodes.add(new BitSet());
+		}
+		return busyNodes.get(column);
+	}
+}
@@ -137,7 +137,8 @@ public class ProgramVisualization extends VisualizationObject {
       for (int row = 0; row < numRows; row++) {
         visualizationData[row][0] = String.format("%s", row);
         for (int column = 0; column < numColumns; column++) {
-          visualizationData[row][column + 1] = sourceCode.get(row, column);
+          var instruction = sourceCode.getInstruction(row, column);
+          visualizationData[row][column + 1] = (instruction == null) ? null : instruction.toString();
         }
       }
     }
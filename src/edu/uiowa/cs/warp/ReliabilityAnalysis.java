@@ -1,8 +1,9 @@
 package edu.uiowa.cs.warp;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import edu.uiowa.cs.warp.SystemAttributes.ScheduleChoices;
-import edu.uiowa.cs.warp.WarpDSL.InstructionParameters;
+import edu.uiowa.cs.warp.Instruction.Action;
 
 /**
  * ReliabilityAnalysis analyzes the end-to-end reliability of messages transmitted in flows for the
@@ -80,6 +81,8 @@ public class ReliabilityAnalysis {
 	 * A reliability table with the results of the reliability analysis. Rows
 	 * in the table are the timeslots in the program schedule, and columns
 	 * are each node in each flow, with the flows sorted by priority order.
+	 * The table is built when it is first requested; verifyReliabilities does
+	 * not need it.
 	 */
 	private ReliabilityTable reliabilities;
 	
@@ -93,11 +96,6 @@ public class ReliabilityAnalysis {
 	 */
 	private String[] headerRow;
 	
-	/**
-	 * The warp dsl object used to parse instruction parameters.
-	 */
-	private WarpDSL dsl;
-	
 	/**
 	 * A map of ReliabilityNodes used to map nodes (entries) to column indexes (keys)
 	 * and store column-specific data on the nodes.
@@ -109,6 +107,41 @@ public class ReliabilityAnalysis {
 	 * program.
 	 */
 	private WorkLoad workload;
+	
+	/**
+	 * Flow descriptors, compiled once from the workload with the flows in priority
+	 * order: the column of each flow's source and sink (the flow's columns are
+	 * srcColumn..snkColumn), and the flow's period, phase, and deadline.
+	 */
+	private int[] flowSrcColumns;
+	private int[] flowSnkColumns;
+	private int[] flowPeriods;
+	private int[] flowPhases;
+	private int[] flowDeadlines;
+	
+	/**
+	 * The index of the flow descriptor of each column.
+	 */
+	private int[] flowOfColumn;
+	
+	/**
+	 * The workload node id of each column, and the flow descriptor of each
+	 * workload flow id, used to find the sink column of a transmission.
+	 */
+	private int[] nodeIdOfColumn;
+	private int[] flowOfFlowId;
+	
+	/**
+	 * The number of reliability table cells (timeslots x columns) above which flows
+	 * are computed in parallel.
+	 */
+	private static final long PARALLEL_THRESHOLD = 1 << 16;
+	
+	/**
+	 * True when reliabilities are computed one row at a time on a single core by the
+	 * ReliabilityRowKernel, instead of one flow at a time.
+	 */
+	private static volatile boolean rowKernel = false;
 	  
 	  
 	
@@ -139,8 +172,9 @@ public class ReliabilityAnalysis {
    
 
   /**
-   * Runs a reliability analysis on the given program and stores it in the
-   * resulting object.
+   * Prepares a reliability analysis of the given program. The full reliability
+   * table is computed when it is first requested (getReliabilities), so checking
+   * the end-to-end targets with verifyReliabilities only keeps two rows in memory.
    * 
    * @param program The program to analyze the reliability of
    */
@@ -150,15 +184,99 @@ public class ReliabilityAnalysis {
 	  this.minPacketReceptionRate = program.getMinPacketReceptionRate();
 	  this.numFaults = program.getNumFaults();
 	  this.schedule = program.getSchedule();
-	  this.dsl = new WarpDSL();
 	  this.workload = program.toWorkLoad();
 	  
 	  setReliabilityHeaderRow(workload);
 	  
 	  this.nodeIndexes = buildNodeMap(workload);
+	  compileFlowDescriptors();
+  }
+  
+  /**
+   * Returns the flows of workload in priority order. The program keeps the order it
+   * scheduled the flows in, so when workload is the analyzed program's workload, the
+   * program's order is used.
+   * 
+   * @param workload the workload whose flows are returned
+   * @return the names of the flows in priority order
+   */
+  private ArrayList<String> flowNamesInPriorityOrder(WorkLoad workload) {
+	  if (program != null && workload == program.toWorkLoad()) {
+		  return program.getFlowNamesInPriorityOrder();
+	  }
+	  return workload.getFlowNamesInPriorityOrder();
+  }
+  
+  /**
+   * Compiles the flow descriptors from the workload and node map, so the per-timeslot
+   * computations index int arrays instead of looking flows and nodes up by name.
+   */
+  private void compileFlowDescriptors() {
+	  ArrayList<String> flowNames = flowNamesInPriorityOrder(workload);
+	  FlowMap allFlows = workload.getFlows();
+	  int nFlows = flowNames.size();
+	  flowSrcColumns = new int[nFlows];
+	  flowSnkColumns = new int[nFlows];
+	  flowPeriods = new int[nFlows];
+	  flowPhases = new int[nFlows];
+	  flowDeadlines = new int[nFlows];
+	  flowOfColumn = new int[headerRow.length];
+	  nodeIdOfColumn = new int[headerRow.length];
+	  flowOfFlowId = new int[workload.getNumFlows()];
 	  
-	  ReliabilityTable computedRATable = buildReliabilityTable();
-	  setReliabilities(computedRATable);
+	  for(int f = 0; f < nFlows; f++) {
+		  Flow flow = allFlows.get(flowNames.get(f));
+		  ReliabilityNode srcNode = (ReliabilityNode) nodeIndexes.get(flow.getName() + ":" + flow.getNodes().get(0));
+		  flowSrcColumns[f] = srcNode.getColumnIndex();
+		  flowSnkColumns[f] = flowSrcColumns[f] + flow.getNodes().size() - 1;
+		  flowPeriods[f] = flow.getPeriod();
+		  flowPhases[f] = srcNode.getPhase();
+		  flowDeadlines[f] = flow.getDeadline();
+		  flowOfFlowId[flow.getId()] = f;
+		  for(int col = flowSrcColumns[f]; col <= flowSnkColumns[f]; col++) {
+			  flowOfColumn[col] = f;
+			  nodeIdOfColumn[col] = flow.getNodes().get(col - flowSrcColumns[f]).getId();
+		  }
+	  }
+  }
+  
+  /**
+   * Finds the column of a node of a flow by id, without building a flow:node key.
+   * When the node appears more than once in the flow, its last column is used,
+   * as in the node map.
+   * 
+   * @param flow the name of the flow
+   * @param node the name of the node
+   * @return the column of the node in the flow, or -1 if it is not in the flow
+   */
+  private int columnOf(String flow, String node) {
+	  int f = flowOfFlowId[workload.getFlowId(flow)];
+	  int nodeId = workload.getNodeId(node);
+	  for(int col = flowSnkColumns[f]; col >= flowSrcColumns[f]; col--) {
+		  if(nodeIdOfColumn[col] == nodeId) {
+			  return col;
+		  }
+	  }
+	  return -1;
+  }
+  
+  /**
+   * Selects how reliabilities are computed from now on. By default
+   * each flow's columns are computed separately, in parallel for large schedules. The
+   * row kernel instead computes whole rows on one core with loops the JIT can vectorize.
+   * Both produce the same reliabilities.
+   * 
+   * @param enabled true to use the row kernel
+   */
+  public static void setRowKernel(boolean enabled) {
+	  rowKernel = enabled;
+  }
+  
+  /**
+   * @return true if reliabilities are computed with the row kernel
+   */
+  public static boolean isRowKernel() {
+	  return rowKernel;
   }
   
   /**
@@ -183,7 +301,7 @@ public class ReliabilityAnalysis {
   public NodeMap buildNodeMap(WorkLoad workload) {
 	  NodeMap nodeMap = new NodeMap();
 	  
-	  ArrayList<String> flowNames = workload.getFlowNamesInPriorityOrder();
+	  ArrayList<String> flowNames = flowNamesInPriorityOrder(workload);
 	  FlowMap flowMap = workload.getFlows();
 	  
 	  int columnIndex = 0;
@@ -220,28 +338,209 @@ public class ReliabilityAnalysis {
    */
   public ReliabilityTable buildReliabilityTable() {
 	  ReliabilityTable reliabilities = new ReliabilityTable(schedule.size(), headerRow.length);
-	  reliabilities = setInitialStateForReleasedFlows(nodeIndexes, reliabilities);
+	  computeReliabilities(reliabilities, new double[headerRow.length], new double[headerRow.length]);
+	  return reliabilities;
+  }
+  
+  /**
+   * The columns, timing, and transmissions of one flow. The reliabilities of a flow's
+   * columns only depend on the flow's own transmissions, so each FlowBlock can be
+   * computed independently of the others.
+   */
+  private static final class FlowBlock {
+	  private final int srcColumn;
+	  private final int nColumns;
+	  private final int period;
+	  private final int phase;
+	  private final int deadline;
+	  /* transmissions of the flow, in schedule order: timeslot and sink column */
+	  private int nEvents = 0;
+	  private int[] eventTimeslots = new int[8];
+	  private int[] eventColumns = new int[8];
+	  
+	  private FlowBlock(int srcColumn, int nColumns, int period, int phase, int deadline) {
+		  this.srcColumn = srcColumn;
+		  this.nColumns = nColumns;
+		  this.period = period;
+		  this.phase = phase;
+		  this.deadline = deadline;
+	  }
+	  
+	  private void addEvent(int timeslot, int column) {
+		  if(nEvents == eventTimeslots.length) {
+			  eventTimeslots = Arrays.copyOf(eventTimeslots, 2 * nEvents);
+			  eventColumns = Arrays.copyOf(eventColumns, 2 * nEvents);
+		  }
+		  eventTimeslots[nEvents] = timeslot;
+		  eventColumns[nEvents] = column;
+		  nEvents++;
+	  }
+  }
+  
+  /**
+   * Computes the reliabilities of every timeslot, with the row kernel when it is enabled
+   * and otherwise one flow at a time.
+   * 
+   * @param reliabilities the table to fill in, or null if only the final and deadline
+   * reliabilities are needed
+   * @param finalRow set to the reliabilities of the final timeslot
+   * @param deadlineReliabilities set to the reliability of each column at its flow's
+   * deadline (the final reliability when the deadline is past the end of the schedule)
+   */
+  private void computeReliabilities(ReliabilityTable reliabilities, double[] finalRow,
+		  double[] deadlineReliabilities) {
+	  if(rowKernel) {
+		  computeRows(reliabilities, finalRow, deadlineReliabilities);
+	  } else {
+		  computeFlowBlocks(reliabilities, finalRow, deadlineReliabilities);
+	  }
+  }
+  
+  /**
+   * Computes the reliabilities one row at a time with the ReliabilityRowKernel, on
+   * the calling thread.
+   */
+  private void computeRows(ReliabilityTable reliabilities, double[] finalRow,
+		  double[] deadlineReliabilities) {
+	  int nTimeslots = schedule.getNumRows();
+	  
+	  //The sink column of every push or pull, indexed by timeslot
+	  int[] slotStart = new int[nTimeslots + 1];
+	  int nEvents = 0;
+	  int[] sinkColumns = new int[Math.max(8, nTimeslots)];
+	  for(int row = 0; row < nTimeslots; row++) {
+		  slotStart[row] = nEvents;
+		  for(int col = 0; col < schedule.getNumColumns(); col++) {
+			  Instruction instruction = schedule.getInstruction(row,col);
+			  if(instruction == null) {
+				  continue;
+			  }
+			  for(Action i:instruction.getActions()) {
+				  if(i.isTransmission()) {
+					  if(nEvents == sinkColumns.length) {
+						  sinkColumns = Arrays.copyOf(sinkColumns, 2 * nEvents);
+					  }
+					  sinkColumns[nEvents++] = columnOf(i.getFlow(), i.getSnk());
+				  }
+			  }
+		  }
+	  }
+	  slotStart[nTimeslots] = nEvents;
 	  
-	  ArrayList<InstructionParameters> instructions;
-	  int timeslot = 0;
+	  new ReliabilityRowKernel(flowSrcColumns, flowSnkColumns, flowPeriods, flowPhases, 
+			  flowDeadlines, flowOfColumn, minPacketReceptionRate)
+	  	.compute(nTimeslots, slotStart, sinkColumns, reliabilities, finalRow, deadlineReliabilities);
+  }
+  
+  /**
+   * Partitions the schedule by flow and computes the reliabilities of every flow's block
+   * of columns. Blocks are computed in parallel on the common fork-join pool when
+   * the schedule is large enough to be worth it.
+   * 
+   * @param reliabilities the table to fill in, or null if only the final and deadline
+   * reliabilities are needed
+   * @param finalRow set to the reliabilities of the final timeslot
+   * @param deadlineReliabilities set to the reliability of each column at its flow's
+   * deadline (the final reliability when the deadline is past the end of the schedule)
+   */
+  private void computeFlowBlocks(ReliabilityTable reliabilities, double[] finalRow,
+		  double[] deadlineReliabilities) {
+	  ArrayList<FlowBlock> blocks = buildFlowBlocks();
+	  int nTimeslots = schedule.getNumRows();
+	  
+	  if(blocks.size() > 1 && (long) nTimeslots * headerRow.length >= PARALLEL_THRESHOLD) {
+		  blocks.parallelStream().forEach(block -> 
+		  	computeFlowBlock(block, nTimeslots, reliabilities, finalRow, deadlineReliabilities));
+	  } else {
+		  for(FlowBlock block: blocks) {
+			  computeFlowBlock(block, nTimeslots, reliabilities, finalRow, deadlineReliabilities);
+		  }
+	  }
+  }
+  
+  /**
+   * Builds a FlowBlock for each flow, in column order, and fills in the transmissions
+   * of each flow with one pass over the schedule.
+   * 
+   * @return the FlowBlocks
+   */
+  private ArrayList<FlowBlock> buildFlowBlocks() {
+	  ArrayList<FlowBlock> blocks = new ArrayList<FlowBlock>(flowPeriods.length);
+	  for(int f = 0; f < flowPeriods.length; f++) {
+		  blocks.add(new FlowBlock(flowSrcColumns[f], flowSnkColumns[f] - flowSrcColumns[f] + 1, 
+				  flowPeriods[f], flowPhases[f], flowDeadlines[f]));
+	  }
 	  
-	  //Iterate through each row in the schedule, and for each row iterate through each set of
-	  //instructions in it. For every instruction in the schedule, update the reliability 
-	  //table if it is a push or pull command (indicating a transmission), and ignore sleep and
-	  //wait commands.
+	  //Every push or pull in the schedule is a transmission to the sink of its flow;
+	  //sleep and wait commands are ignored.
 	  for(int row = 0; row < schedule.getNumRows(); row++) {
-		  reliabilities = carryForwardReliabilities(timeslot, reliabilities);
 		  for(int col = 0; col < schedule.getNumColumns(); col++) {
-			  instructions = dsl.getInstructionParameters(schedule.get(row,col));
-			  for(InstructionParameters i:instructions) {
-				  if(i.getName().equals("push") || i.getName().equals("pull")) {
-					  reliabilities = updateTable(i.getFlow(), i.getSnk(), timeslot, reliabilities);
+			  Instruction instruction = schedule.getInstruction(row,col);
+			  if(instruction == null) {
+				  continue;
+			  }
+			  for(Action i:instruction.getActions()) {
+				  if(i.isTransmission()) {
+					  int sinkColumn = columnOf(i.getFlow(), i.getSnk());
+					  blocks.get(flowOfColumn[sinkColumn]).addEvent(row, sinkColumn);
 				  }
 			  }
 		  }
-		  timeslot++;
 	  }
-	  return reliabilities;
+	  return blocks;
+  }
+  
+  /**
+   * Computes the reliabilities of one flow's columns for every timeslot, keeping only
+   * the previous and current rows of the block. Only the block's columns of the
+   * table and arrays are written, so blocks may be computed concurrently.
+   */
+  private void computeFlowBlock(FlowBlock block, int nTimeslots, ReliabilityTable reliabilities,
+		  double[] finalRow, double[] deadlineReliabilities) {
+	  int nColumns = block.nColumns;
+	  double[] prevRow = new double[nColumns];
+	  double[] currentRow = new double[nColumns];
+	  int deadlineTimeslot = Math.min(block.deadline - 1, nTimeslots - 1);
+	  int nextEvent = 0;
+	  
+	  for(int timeslot = 0; timeslot < nTimeslots; timeslot++) {
+		  double[] reusedRow = prevRow;
+		  prevRow = currentRow;
+		  currentRow = reusedRow;
+		  
+		  //Initial state: the source has the message once the flow is released
+		  Arrays.fill(currentRow, 0.0);
+		  currentRow[0] = (timeslot >= block.phase) ? 1.0 : 0.0;
+		  
+		  boolean newPeriod = (timeslot % block.period == 0);
+		  //Need to copy last row if flow period has not been reset
+		  if(!newPeriod) {
+			  //Choose the highest reliability: last timeslot or this one
+			  for(int col = 1; col < nColumns; col++) {
+				  currentRow[col] = Math.max(prevRow[col], currentRow[col]);
+			  }
+		  }
+		  
+		  //Update the sink of each transmission in this timeslot
+		  while(nextEvent < block.nEvents && block.eventTimeslots[nextEvent] == timeslot) {
+			  int col = block.eventColumns[nextEvent] - block.srcColumn;
+			  if(newPeriod) {
+				  currentRow[col] = minPacketReceptionRate;
+			  } else {
+				  currentRow[col] = (1-minPacketReceptionRate) * prevRow[col]
+						  + minPacketReceptionRate * prevRow[col-1];
+			  }
+			  nextEvent++;
+		  }
+		  
+		  if(reliabilities != null) {
+			  System.arraycopy(currentRow, 0, reliabilities.getRowValues(timeslot), block.srcColumn, nColumns);
+		  }
+		  if(timeslot == deadlineTimeslot) {
+			  System.arraycopy(currentRow, 0, deadlineReliabilities, block.srcColumn, nColumns);
+		  }
+	  }
+	  System.arraycopy(currentRow, 0, finalRow, block.srcColumn, nColumns);
   }
 
   /**
@@ -257,7 +556,7 @@ public class ReliabilityAnalysis {
 		  ReliabilityNode currentNode = (ReliabilityNode) nodeMap.get(headerRow[col]);
 		  if(currentNode.isSource())
 			  for(int row = currentNode.getPhase(); row < reliabilities.getNumRows(); row++) {
-			  	reliabilities.set(row, currentNode.getColumnIndex(), 1.0);
+			  	reliabilities.setReliability(row, currentNode.getColumnIndex(), 1.0);
 			  }
 	  }
 	  return reliabilities;
@@ -265,74 +564,72 @@ public class ReliabilityAnalysis {
   
   /**
    * Carries forward reliabilities to the given timeslot from the one before it, unless
-   * a flow has started a new period. Only used while a reliability table is being built,
-   * is only public for testing purposes.
+   * a flow has started a new period. The table itself is built one flow at a time 
+   * (computeFlowBlock); this method is only public for testing purposes.
    * 
    * @param timeslot the current timeslot
    * @param reliabilities the reliability table being computed
    * @return the reliability table with updated values
    */
   public ReliabilityTable carryForwardReliabilities(int timeslot, ReliabilityTable reliabilities) {
-	  //Collecting flows from workload
-	  ArrayList<String> flowNamesInPriorityOrder = this.workload.getFlowNamesInPriorityOrder();
-	  FlowMap allFlows = this.workload.getFlows();
-	  
+	  double[] prevRow = (timeslot > 0) ? reliabilities.getRowValues(timeslot-1) : null;
+	  carryForward(timeslot, prevRow, reliabilities.getRowValues(timeslot));
+	  return reliabilities;
+  }
+  
+  /*
+   * Carries forward reliabilities from prevRow to currentRow, unless a flow has
+   * started a new period.
+   */
+  private void carryForward(int timeslot, double[] prevRow, double[] currentRow) {
 	  //Iterate through all flows by priority
-	  for(String flowName: flowNamesInPriorityOrder) {
-		  Flow flow = allFlows.get(flowName);
-		  
-		  //Need to find index of the source node to track our place in the table
-		  String srcNodeName = flow.getName() + ":" + flow.getNodes().get(0);
-		  ReliabilityNode srcNode = (ReliabilityNode) nodeIndexes.get(srcNodeName);
-		  int srcNodeIndex = srcNode.getColumnIndex();
-		  int snkNodeIndex = srcNodeIndex + flow.getNodes().size();
-		  
-		  int period = flow.getPeriod();
+	  for(int f = 0; f < flowPeriods.length; f++) {
 		  //Need to copy last row if flow period has not been reset
-		  if(timeslot % period != 0) {
-			  //Iterate through the columns spanned by the flow
-			  for(int col = srcNodeIndex+1; col < snkNodeIndex; col++) {
-				  Double prevReliability = reliabilities.get(timeslot-1, col);
-				  Double currentReliability = reliabilities.get(timeslot, col);
-				  //Choose the highest reliability: last timeslot or this one
-				  if(prevReliability > currentReliability) {
-					  reliabilities.set(timeslot, col, prevReliability);
-				  }
+		  if(timeslot % flowPeriods[f] != 0) {
+			  //Iterate through the columns spanned by the flow after its source, choosing
+			  //the highest reliability: last timeslot or this one
+			  for(int col = flowSrcColumns[f]+1; col <= flowSnkColumns[f]; col++) {
+				  currentRow[col] = Math.max(prevRow[col], currentRow[col]);
 			  }
 		  }
 	  }
-	  
-	  return reliabilities;
   }
   
   /*
-   * Updates a cell the the reliability table following transmission between nodes. Only
-   * used while a reliability table is being built, is only public for testing.
+   * Updates a cell the the reliability table following transmission between nodes. The
+   * table itself is built one flow at a time (computeFlowBlock); this method is only 
+   * public for testing.
    * 
    * @param flow the flow of the transmission
    * @param sink the sink node, which is the node to be updated
    * @param timeslot the current timeslot
    */
   public ReliabilityTable updateTable(String flow, String sink, int timeslot, ReliabilityTable reliabilities) {
+	  double[] prevRow = (timeslot > 0) ? reliabilities.getRowValues(timeslot-1) : null;
+	  update(flow, sink, timeslot, prevRow, reliabilities.getRowValues(timeslot));
+	  return reliabilities;
+  }
+  
+  /*
+   * Updates the sink cell of currentRow following a transmission of flow.
+   */
+  private void update(String flow, String sink, int timeslot, double[] prevRow, double[] currentRow) {
 	  //Find the index of the column that needs to be updated
-	  ReliabilityNode sinkNode = (ReliabilityNode) nodeIndexes.get(flow + ":" + sink);
-	  int colIndex = sinkNode.getColumnIndex();
+	  int colIndex = columnOf(flow, sink);
 	  
-	  int period = workload.getFlowPeriod(flow);
+	  int period = flowPeriods[flowOfColumn[colIndex]];
 	  //Update the cell based on the reliability math
 	  if(timeslot % period == 0) {
-		  reliabilities.set(timeslot, colIndex, minPacketReceptionRate);
+		  currentRow[colIndex] = minPacketReceptionRate;
 	  }else {
-		  Double prevSrcNodeState = reliabilities.get(timeslot-1, colIndex-1);
-		  Double prevSinkNodeState = reliabilities.get(timeslot-1, colIndex);
+		  double prevSrcNodeState = prevRow[colIndex-1];
+		  double prevSinkNodeState = prevRow[colIndex];
 		  
-		  Double newSinkNodeState = (1-minPacketReceptionRate) * prevSinkNodeState
+		  double newSinkNodeState = (1-minPacketReceptionRate) * prevSinkNodeState
 				  + minPacketReceptionRate * prevSrcNodeState;
 		  
-		  reliabilities.set(timeslot, colIndex, newSinkNodeState);
+		  currentRow[colIndex] = newSinkNodeState;
 	  }
-	  
-	  return reliabilities;
   }
   
   /**
@@ -353,7 +650,7 @@ public class ReliabilityAnalysis {
    */
   public void setReliabilityHeaderRow(WorkLoad workload) {
 	  	ArrayList<String> columnHeaderList = new ArrayList<String>(0);
-		ArrayList<String> flowNames = workload.getFlowNamesInPriorityOrder();
+		ArrayList<String> flowNames = flowNamesInPriorityOrder(workload);
 		for(String flow: flowNames) {
 			String[] nodes = workload.getNodesInFlow(flow);
 			for(String node: nodes) {
@@ -377,7 +674,7 @@ public class ReliabilityAnalysis {
    * @return the last row in the reliability table
    */
   public ReliabilityRow getFinalReliabilityRow() {
-	  return this.reliabilities.get(this.reliabilities.size()-1);
+	  return getReliabilities().get(this.reliabilities.size()-1);
   }
   
   /**
@@ -422,39 +719,64 @@ public class ReliabilityAnalysis {
    * @return a ReliabilityTable with the results of the analysis
    */
   public ReliabilityTable getReliabilities() {
+	  if (reliabilities == null && schedule != null) {
+		  setReliabilities(buildReliabilityTable());
+	  }
       return reliabilities;
    }
 
   /**
-   * Verifies that reliabilities are being met by the schedule being analyzed.
+   * Verifies that reliabilities are being met by the schedule being analyzed. Unless
+   * the reliability table has already been built, each flow is streamed through the
+   * schedule keeping only its previous and current rows and its reliabilities at its
+   * deadline, so memory does not grow with the length of the schedule.
    * 
    * @return true if reliabilities have been met, false if not
    */
   public Boolean verifyReliabilities() {
-	ReliabilityRow t = this.getFinalReliabilityRow();
+	int nColumns = headerRow.length;
 	FlowMap allFlows = this.workload.getFlows();
 	
-	//Check Final Reliabilities
-	for(int i = 0; i < t.size(); i++) {
-		if(t.get(i) < this.e2e) {
-			System.out.println(t.get(i) + " is greater than or equal to e2e");
-			return false;
-		}
-	}
-	
-	for(int i = 0; i < this.reliabilities.getNumColumns(); i++) {
+	//The timeslot of each column's flow deadline; sources are not checked
+	int[] deadlineSlots = new int[nColumns];
+	for(int i = 0; i < nColumns; i++) {
 		String header = this.headerRow[i];
 		String flowName = header.substring(0, header.indexOf(":"));
 		
 		ReliabilityNode curNode = (ReliabilityNode) this.nodeIndexes.get(header);
 		
 		if(curNode.isSource() == true){
-			continue;
+			deadlineSlots[i] = -1;
+		} else {
+			deadlineSlots[i] = allFlows.get(flowName).getDeadline() - 1;
 		}
-		
-		int deadline = allFlows.get(flowName).getDeadline();
-		
-		if(reliabilities.get(deadline-1, i) < e2e) {
+	}
+	
+	double[] deadlineReliabilities = new double[nColumns];
+	double[] finalRow;
+	if(this.reliabilities != null) {
+		int lastRow = this.reliabilities.size() - 1;
+		finalRow = this.reliabilities.getRowValues(lastRow);
+		for(int i = 0; i < nColumns; i++) {
+			if(deadlineSlots[i] >= 0) {
+				deadlineReliabilities[i] = this.reliabilities.getReliability(Math.min(deadlineSlots[i], lastRow), i);
+			}
+		}
+	} else {
+		finalRow = new double[nColumns];
+		computeReliabilities(null, finalRow, deadlineReliabilities);
+	}
+	
+	//Check Final Reliabilities
+	for(int i = 0; i < finalRow.length; i++) {
+		if(finalRow[i] < this.e2e) {
+			System.out.println(finalRow[i] + " is greater than or equal to e2e");
+			return false;
+		}
+	}
+	
+	for(int i = 0; i < nColumns; i++) {
+		if(deadlineSlots[i] >= 0 && deadlineReliabilities[i] < e2e) {
 			return false;
 		}
 	}
@@ -462,7 +784,6 @@ public class ReliabilityAnalysis {
 	return true;
   }
   
-  
   /**
    * Calculates number of transmissions needed per link and total worst-case
    * transmission time for the given flow.
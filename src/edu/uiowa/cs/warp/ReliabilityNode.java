@@ -49,7 +49,7 @@ public class ReliabilityNode extends Node {
 	/**
 	 * @return the phase of the node
 	 */
-	public Integer getPhase() {
+	public int getPhase() {
 		return phase;
 	}
 	
@@ -0,0 +1,124 @@
+package edu.uiowa.cs.warp;
+
+import java.util.Arrays;
+
+/**
+ * ReliabilityRowKernel computes reliabilities one whole row (timeslot) at a time on a
+ * single core. It is the alternative to computing each flow's block of columns
+ * separately (see ReliabilityAnalysis.setRowKernel).
+ *
+ * Within a row, the carry-forward step is max(prev, cur) over contiguous spans of
+ * columns. The spans of adjacent flows that have not started a new period are merged,
+ * so in most timeslots the step is one loop over the whole row. The span loops have no
+ * branches or calls, which lets HotSpot compile them to SIMD instructions. Source
+ * columns may be included in a span because a source's reliability never decreases
+ * from one timeslot to the next.
+ *
+ * The flow descriptors are those compiled by ReliabilityAnalysis: flows in column
+ * order, each spanning srcColumn..snkColumn.
+ */
+final class ReliabilityRowKernel {
+
+	private final int[] flowSrcColumns;
+	private final int[] flowSnkColumns;
+	private final int[] flowPeriods;
+	private final int[] flowPhases;
+	private final int[] flowDeadlines;
+	private final int[] flowOfColumn;
+	private final double minPacketReceptionRate;
+
+	ReliabilityRowKernel(int[] flowSrcColumns, int[] flowSnkColumns, int[] flowPeriods,
+			int[] flowPhases, int[] flowDeadlines, int[] flowOfColumn, double minPacketReceptionRate) {
+		this.flowSrcColumns = flowSrcColumns;
+		this.flowSnkColumns = flowSnkColumns;
+		this.flowPeriods = flowPeriods;
+		this.flowPhases = flowPhases;
+		this.flowDeadlines = flowDeadlines;
+		this.flowOfColumn = flowOfColumn;
+		this.minPacketReceptionRate = minPacketReceptionRate;
+	}
+
+	/**
+	 * Computes the reliabilities of every timeslot.
+	 *
+	 * @param nTimeslots the number of timeslots in the schedule
+	 * @param slotStart the index in sinkColumns of the first transmission in each
+	 *        timeslot, with slotStart[nTimeslots] the number of transmissions
+	 * @param sinkColumns the sink column of each transmission, in schedule order
+	 * @param reliabilities the table to fill in, or null if only the final and deadline
+	 *        reliabilities are needed
+	 * @param finalRow set to the reliabilities of the final timeslot
+	 * @param deadlineReliabilities set to the reliability of each column at its flow's
+	 *        deadline (the final reliability when the deadline is past the end of the
+	 *        schedule)
+	 */
+	void compute(int nTimeslots, int[] slotStart, int[] sinkColumns, ReliabilityTable reliabilities,
+			double[] finalRow, double[] deadlineReliabilities) {
+		int nColumns = finalRow.length;
+		int nFlows = flowPeriods.length;
+		boolean[] newPeriod = new boolean[nFlows];
+		double[] prevRow = new double[nColumns];
+		double[] currentRow = new double[nColumns];
+
+		for (int timeslot = 0; timeslot < nTimeslots; timeslot++) {
+			if (reliabilities != null) {
+				/* work in the table's rows, which start out 0.0 */
+				if (timeslot > 0) {
+					prevRow = currentRow;
+				}
+				currentRow = reliabilities.getRowValues(timeslot);
+			} else {
+				double[] reusedRow = prevRow;
+				prevRow = currentRow;
+				currentRow = reusedRow;
+				Arrays.fill(currentRow, 0.0);
+			}
+
+			/* release sources, and carry forward the spans of flows in the same period */
+			int spanStart = -1;
+			int spanEnd = -1;
+			for (int f = 0; f < nFlows; f++) {
+				currentRow[flowSrcColumns[f]] = (timeslot >= flowPhases[f]) ? 1.0 : 0.0;
+				newPeriod[f] = (timeslot % flowPeriods[f] == 0);
+				if (newPeriod[f] || flowSrcColumns[f] != spanEnd) {
+					carryForward(prevRow, currentRow, spanStart, spanEnd);
+					spanStart = -1;
+					spanEnd = -1;
+				}
+				if (!newPeriod[f]) {
+					if (spanStart < 0) {
+						spanStart = flowSrcColumns[f];
+					}
+					spanEnd = flowSnkColumns[f] + 1;
+				}
+			}
+			carryForward(prevRow, currentRow, spanStart, spanEnd);
+
+			/* update the sink of each transmission */
+			for (int e = slotStart[timeslot]; e < slotStart[timeslot + 1]; e++) {
+				int col = sinkColumns[e];
+				if (newPeriod[flowOfColumn[col]]) {
+					currentRow[col] = minPacketReceptionRate;
+				} else {
+					currentRow[col] = (1 - minPacketReceptionRate) * prevRow[col]
+							+ minPacketReceptionRate * prevRow[col - 1];
+				}
+			}
+
+			for (int f = 0; f < nFlows; f++) {
+				if (Math.min(flowDeadlines[f] - 1, nTimeslots - 1) == timeslot) {
+					System.arraycopy(currentRow, flowSrcColumns[f], deadlineReliabilities,
+							flowSrcColumns[f], flowSnkColumns[f] - flowSrcColumns[f] + 1);
+				}
+			}
+		}
+		System.arraycopy(currentRow, 0, finalRow, 0, nColumns);
+	}
+
+	/* current = max(prev, current) over columns [from, to) */
+	private static void carryForward(double[] prevRow, double[] currentRow, int from, int to) {
+		for (int col = from; col < to; col++) {
+			currentRow[col] = Math.max(prevRow[col], currentRow[col]);
+		}
+	}
+}
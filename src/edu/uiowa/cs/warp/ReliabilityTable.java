@@ -1,24 +1,117 @@
 package edu.uiowa.cs.warp;
 
-public class ReliabilityTable extends Table<Double,ReliabilityRow> {
+import java.util.ArrayList;
 
-	private static final long serialVersionUID = 1L;
+/**
+ * ReliabilityTable holds the reliabilities computed by ReliabilityAnalysis: one
+ * row per time slot and one column per flow:node. Each row is stored as a
+ * primitive double[], so a table for a long hyperperiod does not allocate a
+ * boxed Double per cell.
+ *
+ * The boxed get/set methods keep the interface of Table, including returning
+ * null (get) or doing nothing (set) when the cell is outside the table. The
+ * hot loops of the analysis use getReliability/setReliability instead.
+ */
+public class ReliabilityTable {
+
+	private final ArrayList<double[]> rows;
 
 	// default constructor
 	public ReliabilityTable() {
-		super();
+		rows = new ArrayList<double[]>();
 	}
-	
+
 	ReliabilityTable(Integer row, Integer column) {
-		super();
+		rows = new ArrayList<double[]>(row);
 		for(int i=0; i < row; i++) {
-			ReliabilityRow emptyRow = new ReliabilityRow();
-			for(int j=0; j < column; j++) {
-				emptyRow.add(0.0);
+			rows.add(new double[column]); // initialized to 0.0
+		}
+	}
+
+	/**
+	 * Append a row to the end of the table.
+	 *
+	 * @param row the reliabilities of the new row
+	 */
+	public void add(ReliabilityRow row) {
+		var values = new double[row.size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = row.get(i);
+		}
+		rows.add(values);
+	}
+
+	/**
+	 * @return the number of rows
+	 */
+	public int size() {
+		return rows.size();
+	}
+
+	public Integer getNumRows() {
+		return rows.size();
+	}
+
+	public Integer getNumColumns() {
+		var numRows = rows.size();
+		return (numRows > 0) ? rows.get(numRows-1).length : 0;
+	}
+
+	/**
+	 * @return a copy of the row as a ReliabilityRow
+	 */
+	public ReliabilityRow get(int row) {
+		var values = rows.get(row);
+		var reliabilityRow = new ReliabilityRow();
+		for (double value : values) {
+			reliabilityRow.add(value);
+		}
+		return reliabilityRow;
+	}
+
+	/**
+	 * @return the reliability at (row, column), or null if the cell is not in the table
+	 */
+	public Double get(Integer row, Integer column) {
+		if (row < rows.size()) {
+			var values = rows.get(row);
+			if (column < values.length) {
+				return values[column];
 			}
-			this.add(emptyRow);
 		}
+		return null;
+	}
+
+	/**
+	 * Set the reliability at (row, column). Cells outside the table are ignored.
+	 */
+	public void set(Integer row, Integer column, Double element) {
+		if (row < rows.size()) {
+			var values = rows.get(row);
+			if (column < values.length) {
+				values[column] = element;
+			}
+		}
+	}
+
+	/**
+	 * @return the reliability at (row, column), which must be in the table
+	 */
+	public double getReliability(int row, int column) {
+		return rows.get(row)[column];
 	}
-	
-}
 
+	/**
+	 * Set the reliability at (row, column), which must be in the table.
+	 */
+	public void setReliability(int row, int column, double reliability) {
+		rows.get(row)[column] = reliability;
+	}
+
+	/**
+	 * @return the values of row; changes to the array change the table
+	 */
+	double[] getRowValues(int row) {
+		return rows.get(row);
+	}
+}
@@ -1,9 +1,9 @@
 package edu.uiowa.cs.warp;
 
 import java.util.HashMap;
-import java.util.ArrayList;
+import java.util.BitSet;
 
-import edu.uiowa.cs.warp.WarpDSL.InstructionParameters;
+import edu.uiowa.cs.warp.Instruction.Action;
 
 /**
  * Schedule builds a non-preemptive, priority schedule 
@@ -17,11 +17,23 @@ import edu.uiowa.cs.warp.WarpDSL.InstructionParameters;
 public abstract class Schedule {
 
 	private static final String UNKNOWN = "unknown";
+	/* the longest schedule or program built. Time slots are ints, and half
+	 * of the int range leaves room for time + duration arithmetic near the
+	 * end of the schedule. A longer workload is reported as not schedulable
+	 * instead of overflowing.
+	 */
+	static final int MAX_SCHEDULE_TIME = Integer.MAX_VALUE / 2;
+	/* the slot conflict index is allocated in segments of 2^SEGMENT_BITS 
+	 * time slots when an entry is first entered in them, so the memory 
+	 * used follows the occupied part of the schedule, not its length
+	 */
+	private static final int SEGMENT_BITS = 12;
+	private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
 	
 	protected Boolean schedulable;
-	protected Integer numChannels;
-	private Integer fakeTime = 0; // for fake scheduling to test
-	protected Integer endScheduleTime;
+	protected int numChannels;
+	private int fakeTime = 0; // for fake scheduling to test
+	protected int endScheduleTime;
 	/* schedule is a 2D table of partition elements.
 	 * The row will be time, ranging from 0 -> endScheduleTime-1
 	 * The column will be channels + 1, so we can track
@@ -30,21 +42,49 @@ public abstract class Schedule {
 	 */
 	protected ScheduleTable schedule;
 	protected Poset poset; // partially ordered set (poset)
+	/* slotSegments[t >>> SEGMENT_BITS] holds the conflicts of time slot t,
+	 * or is null if no entry was ever entered in its segment.
+	 */
+	private SlotSegment[] slotSegments;
 
 	Schedule(Poset poset, Integer numChannels) {
 		this.poset = poset;
 		this.numChannels = numChannels;
 		var maxPhase = poset.getMaxPhase();
-		endScheduleTime = poset.getHyperPeriod();
-		if (maxPhase > 0) {
+		var scheduleLength = poset.getLongHyperPeriod();
+		if (maxPhase > 0 && scheduleLength <= MAX_SCHEDULE_TIME) {
 			/* need to schedule longer to cover start-up period */
-			endScheduleTime = maxPhase + 2*endScheduleTime ;
-		}
+			scheduleLength = maxPhase + 2*scheduleLength;
+		}
+		if (scheduleLength > MAX_SCHEDULE_TIME) {
+			/* too long to build, so build nothing and report why */
+			System.err.printf("\n\tERROR: a schedule of %d time slots is longer than the %d "
+					+ "time slots that can be scheduled.\n", scheduleLength, MAX_SCHEDULE_TIME);
+			endScheduleTime = 0;
+			schedule = new ScheduleTable(numChannels+1,endScheduleTime);
+			schedulable = false;
+			return;
+		}
+		endScheduleTime = (int) scheduleLength;
 		schedule = new ScheduleTable(numChannels+1,endScheduleTime);
+		slotSegments = new SlotSegment[(endScheduleTime + SEGMENT_SIZE - 1) >>> SEGMENT_BITS];
 		schedulable = true;
 		buildSchedule();
 	}
 
+	/* conflicts[i] is the OR of the conflict masks of the entries
+	 * on channels 0..numChannels-1 at the i-th time slot of the segment,
+	 * so a conflict check of a time slot is one mask AND instead of a 
+	 * scan of every channel. A slot is recomputed on the first check 
+	 * after one of its entries changes. unmasked[i] is set when an entry
+	 * in the slot has no conflict mask; such slots are checked entry by entry.
+	 */
+	private static class SlotSegment {
+		BitSet[] conflicts = new BitSet[SEGMENT_SIZE];
+		boolean[] stale = new boolean[SEGMENT_SIZE];
+		boolean[] unmasked = new boolean[SEGMENT_SIZE];
+	}
+
 	protected class ScheduleLocation {
 		Integer channel;
 		Integer time;
@@ -79,6 +119,13 @@ public abstract class Schedule {
 		return schedule;
 	}
 
+	/**
+	 * @return the number of time slots in the schedule
+	 */
+	public int getEndScheduleTime() {
+		return endScheduleTime;
+	}
+
 	private void buildSchedule() {
 
 		var next = poset.getNextActivation();
@@ -120,6 +167,7 @@ public abstract class Schedule {
 		var program = new ProgramSchedule(endScheduleTime,numNodes);
 		CodeFragment codeFragment = null;
 		var duration = 0; // default duration for SLEEP;
+		var offset = 0; // first instruction of the fragment to enter
 		String name = null;
 		var startTime = 0;
 		var endTime = 0;
@@ -143,26 +191,32 @@ public abstract class Schedule {
 				if (entry == null) {
 					/* no entry here, so instruction will be SLEEP instruction */
 					codeFragment = new CodeFragment();
+					offset = 0;
 					startTime = time;
 					endTime = time;
 					name = "Empty";
 				} else {
 					/* create the codeFragment for this activation entry */
 					codeFragment = new CodeFragment(entry.getDelta(),entry.getEdges(),
-							entry.getCoordinators(),channel);
+							entry.getCoordinators(),channel,nodeIndexMap);
 					startTime = entry.getStartTime();
 					endTime = entry.getEndTime();
 					name = entry.getName();
 					duration =  endTime - startTime + 1;
+					offset = 0;
+					if (entry.isPreempted()) {
+						/* entry is one slice of a preempted activation, so
+						 * it continues where the earlier slices stopped
+						 */
+						offset = codeFragment.size() - entry.getRemainingExecutionTime();
+					}
 					if (duration > codeFragment.size()) {
 						/* for combination fragments, we can sometimes generate
 						 * more efficient code than originally thought. So,
 						 * update schedule by replacing the entry with null
 						 * and update the activation with the the new end time.
 						 */
-						for (int k = 0; k < (duration - codeFragment.size()); k++) {
-							schedule.set(channel,endTime-k,null);
-						}
+						setEntries(channel, endTime - (duration - codeFragment.size()) + 1, endTime, null);
 						endTime = codeFragment.size() + startTime - 1;
 						entry.setEndTime(endTime);
 						
@@ -174,7 +228,7 @@ public abstract class Schedule {
 				 * The larger was used, but we should make sure duration isn't
 				 * > size, else we may overwrite something. Just report for now.
 				 */
-				if (duration > codeFragment.size()) {
+				if (offset < 0 || offset + duration > codeFragment.size()) {
 					System.err.printf("activation %s: duration = %d, codeSize = %d", 
 							name,duration, codeFragment.size());
 				} else if (time != startTime ){
@@ -192,26 +246,24 @@ public abstract class Schedule {
 						 * program with sleep instructions at the end
 						 */
 						for (int i = 0; i < duration; i++) {
-							var instr = instructions.get(i);
+							var instr = instructions.get(offset+i);
 							/* enter the instruciton in the program */
 							var row = time+i;
 							var column = nodeIndexMap.get(coordinator);		
-							program.set(row,column,instr);
+							program.setInstruction(row,column,instr);
 
 							/* get the listeners from the instruction 
 							 * and insert the wait() instructions into
 							 * the program for each listener
 							 * */
-							var dsl = new WarpDSL();
-							var instructionParametersArray = dsl.getInstructionParameters(instr); 
-							for (InstructionParameters fragment: instructionParametersArray) {
-								String listener = fragment.getListener();
-								if(!listener.equals(UNKNOWN)) {
+							for (Action fragment: instr.getActions()) {
+								var listener = fragment.getListenerId();
+								if(listener != Instruction.UNUSED) {
 									/* need to add a wait instruction for node listener
 									 * wait(#channel)
 									 * at time,listener location of program table
 									 */
-									program.set(time+i,nodeIndexMap.get(listener),codeFragment.wait(channel));
+									program.setInstruction(time+i,listener,codeFragment.wait(channel));
 								}
 							}
 						}
@@ -236,9 +288,9 @@ public abstract class Schedule {
 
 		for (int i = 0; i < rows; i++) {
 			for (int j = 0; j < columns; j++) {
-				var entry = program.get(i,j);
+				var entry = program.getInstruction(i,j);
 				if (entry == null) {
-					program.set(i, j, CodeFragment.sleep());
+					program.setInstruction(i, j, CodeFragment.sleep());
 				}
 			}
 		}
@@ -270,12 +322,10 @@ public abstract class Schedule {
 		 * into the scheduling tale
 		 */
 		var entry = new Activation(next, startTime);
-		for (int i = startTime; i <= fakeTime; i++) {
-			/* Add this object to the schedule for the
-			 * from startTime to endTime.
-			 */
-			schedule.set(channel, i, entry);
-		}
+		/* Add this object to the schedule for the
+		 * from startTime to endTime.
+		 */
+		setEntries(channel, startTime, fakeTime, entry);
 		fakeTime++;
 	}
 
@@ -288,7 +338,7 @@ public abstract class Schedule {
 	 * 
 	 * @return available channel or numChannels when none available
 	 */
-	protected Integer getChannelAndSetStartTime(Activation schedulableObject) {
+	protected int getChannelAndSetStartTime(Activation schedulableObject) {
 		var time = schedulableObject.getReleaseTime();
 		var channel = numChannels; // default is no channel available
 		var endTime = endScheduleTime; // duration of the schedule
@@ -301,10 +351,11 @@ public abstract class Schedule {
 		var pred = schedulableObject.getPredecessor();
 		if (pred != null) {
 			/* peek at the head of the endTimes for pred */
-			var predEndTime = pred.peekEndTimes();
-			if (predEndTime == null) {
+			if (!pred.hasEndTimes()) {
 				return numChannels; // return indicates no channel/time
-			} else if (predEndTime >= time) {
+			}
+			var predEndTime = pred.peekEndTimes();
+			if (predEndTime >= time) {
 				/* can't schedule here; need to look later */
 				time = predEndTime+1;
 			} 
@@ -324,17 +375,87 @@ public abstract class Schedule {
 		return channel;
 	}
 
-	protected ScheduleLocation findChannelAndTime(Integer time, Activation schedulableObject ) {
-		var channel = numChannels; // default is no channel available 
+	/**
+	 * findChannelAndTime searches for the first time at or after time 
+	 * when schedulableObject has no conflicts and a channel is available.
+	 * The search is iterative: when no channel is available, it asks
+	 * continueSearch how to go on, and by default tries the next time.
+	 * 
+	 * @param time the earliest time to consider
+	 * @param schedulableObject the activation to be scheduled
+	 * @return the channel and time found; the channel is numChannels if none
+	 */
+	protected ScheduleLocation findChannelAndTime(int time, Activation schedulableObject ) {
 		var duration = schedulableObject.getExecutionDuration();
 		
-		while (time < endScheduleTime && conflictsExist(schedulableObject, time, duration )) {
-			time ++; //+= duration+1;
+		while (true) {
+			time = nextConflictFreeTime(schedulableObject, time, duration);
+			if (time >= endScheduleTime) {
+				/* no conflict time available */
+				return new ScheduleLocation(numChannels, time);	
+			} 
+			var location = findChannel(time, schedulableObject, duration);
+			if (location == null) {
+				/* no time and channel found in interval [time, time+duration]
+				 * so, ask how to continue the search
+				 */
+				location = continueSearch(time, schedulableObject);
+			}
+			if (location != null) {
+				return location;
+			}
+			time++;
 		}
-		if (time >= endScheduleTime) {
-			/* no conflict time available */
-			return new ScheduleLocation(channel, time);	
-		} 
+	}
+	
+	/**
+	 * nextConflictFreeTime returns the first time t >= time for which 
+	 * conflictsExist(obj, t, duration) is false, or endScheduleTime if 
+	 * there is none. When a conflict is found, the search skips past the
+	 * last conflicting slot in the interval, because every start time up 
+	 * to that slot would overlap it.
+	 */
+	private int nextConflictFreeTime(Activation obj, int time, int duration) {
+		while (time < endScheduleTime) {
+			if (time+duration >= endScheduleTime) {
+				/* conflictsExist reports no conflict this close to the end */
+				return time;
+			}
+			if (duration <= 0) {
+				/* conflictsExist reports a conflict at every time */
+				return endScheduleTime;
+			}
+			var lastConflict = lastConflictTime(obj, time, duration);
+			if (lastConflict < 0) {
+				return time;
+			}
+			/* don't skip past the first time that is too close to the end */
+			time = Math.min(lastConflict+1, endScheduleTime-duration);
+		}
+		return time;
+	}
+	
+	/**
+	 * @return the last time in [time, time+duration) with a conflict, or -1 if none
+	 */
+	private int lastConflictTime(Activation obj, int time, int duration) {
+		for (int i = time+duration-1; i >= time; i--) {
+			if (slotConflictExists(obj, i)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * findChannel finds the best channel at time, which must be free
+	 * of conflicts.
+	 * 
+	 * @return the channel and (possibly earlier, if combined) time, or null if 
+	 * no channel is available
+	 */
+	private ScheduleLocation findChannel(int time, Activation schedulableObject, int duration) {
+		var channel = numChannels; // default is no channel available 
 		
 		/* can schedule at current value of time, so find the best channel.
 		 * Bias toward and empty channel at near lowest end of spectrum */
@@ -369,31 +490,106 @@ public abstract class Schedule {
 			}
 
 		}
-		/* no time and channel found in interval [time, time+duration]
-		 * so, advance time and check again
-		 */
 		if (channel == numChannels) {
-			return continueSearch(time,schedulableObject);
+			return null;
 		} else {
 			return new ScheduleLocation(channel, time);	
 		}
 	}
 	
 	/** continueSearch continues the search for a channel time.<br>
-	 * The default implementation continues at time+1 by calling
-	 * findChannelAndTime(time+1,schedulableObject). This method
-	 * can be overridden to provide preemptive searches or any
-	 * other method of continuing the search.
+	 * The default implementation returns null, so findChannelAndTime
+	 * continues at time+1. This method can be overridden to provide 
+	 * preemptive searches or any other method of continuing the search.
 	 * 
 	 * @param time
 	 * @param activation
-	 * @return ScheduleLocation
+	 * @return ScheduleLocation, or null to continue the search at time+1
 	 */
-	protected ScheduleLocation continueSearch(Integer time, Activation activation) {
-		return findChannelAndTime(time+1,activation);
+	protected ScheduleLocation continueSearch(int time, Activation activation) {
+		return null;
 	}
 	
-	protected Boolean noOtherChannelConflicts(Integer exceptedChannel, Activation schedulableObject, Integer time) {
+	/**
+	 * setEntry enters entry into the schedule at (channel, time) and
+	 * marks the conflicts of that time slot for recomputation. All changes
+	 * to the schedule are made through this method.
+	 */
+	protected void setEntry(int channel, int time, Activation entry) {
+		setEntries(channel, time, time, entry);
+	}
+	
+	/**
+	 * setEntries enters entry into the schedule on channel for every 
+	 * time in [startTime, endTime].
+	 */
+	protected void setEntries(int channel, int startTime, int endTime, Activation entry) {
+		schedule.set(channel, startTime, endTime, entry);
+		if (channel < numChannels) {
+			for (int time = Math.max(startTime, 0); time <= endTime && time < endScheduleTime; time++) {
+				var segment = slotSegments[time >>> SEGMENT_BITS];
+				if (segment == null) {
+					segment = new SlotSegment();
+					slotSegments[time >>> SEGMENT_BITS] = segment;
+				}
+				segment.stale[time & (SEGMENT_SIZE-1)] = true;
+			}
+		}
+	}
+	
+	/**
+	 * slotConflictExists returns true if obj conflicts with an entry
+	 * on any channel at time.
+	 */
+	protected Boolean slotConflictExists(Activation obj, int time) {
+		if (obj == null) {
+			return false;
+		}
+		var segment = slotSegments[time >>> SEGMENT_BITS];
+		if (segment == null) {
+			/* nothing was ever entered in this part of the schedule */
+			return false;
+		}
+		var slot = time & (SEGMENT_SIZE-1);
+		var mask = obj.getConflictMask();
+		if (segment.stale[slot]) {
+			updateSlotConflicts(segment, time);
+		}
+		if (mask != null && !segment.unmasked[slot]) {
+			return segment.conflicts[slot] != null && segment.conflicts[slot].intersects(mask);
+		}
+		for (int channel = 0; channel < numChannels ; channel++) {
+			var entry = schedule.get(channel,time);
+			if (entry != null && entry.conflictExists(obj)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private void updateSlotConflicts(SlotSegment segment, int time) {
+		BitSet conflicts = null;
+		var unmasked = false;
+		for (int channel = 0; channel < numChannels ; channel++) {
+			var entry = schedule.get(channel,time);
+			if (entry != null) {
+				var mask = entry.getConflictMask();
+				if (mask == null) {
+					unmasked = true;
+				} else if (conflicts == null) {
+					conflicts = (BitSet) mask.clone();
+				} else {
+					conflicts.or(mask);
+				}
+			}
+		}
+		var slot = time & (SEGMENT_SIZE-1);
+		segment.conflicts[slot] = conflicts;
+		segment.unmasked[slot] = unmasked;
+		segment.stale[slot] = false;
+	}
+	
+	protected Boolean noOtherChannelConflicts(int exceptedChannel, Activation schedulableObject, int time) {
 		var result = true;
 
 		if (time >= endScheduleTime) {
@@ -402,7 +598,11 @@ public abstract class Schedule {
 			 */
 			return false;
 		}
-		for (Integer channel = 0; channel < numChannels ; channel++) {
+		if (!slotConflictExists(schedulableObject, time)) {
+			/* no entry at this time conflicts, including the excepted channel */
+			return true;
+		}
+		for (int channel = 0; channel < numChannels ; channel++) {
 			var entry = schedule.get(channel,time);
 
 			if (entry != null && schedulableObject != null && channel != exceptedChannel) {
@@ -415,7 +615,7 @@ public abstract class Schedule {
 		return result;
 	}
 	
-	protected Boolean conflictsExist(Activation obj, Integer time, Integer duration) {
+	protected Boolean conflictsExist(Activation obj, int time, int duration) {
 		var result = false;
 
 		if (time+duration >= endScheduleTime) {
@@ -427,22 +627,17 @@ public abstract class Schedule {
 		if (duration <= 0) {
 			result  = true;
 		} else {
-			for (Integer i = time; i < time+duration; i++ ) {
-				for (Integer channel = 0; channel < numChannels ; channel++) {
-					var entry = schedule.get(channel,i);
-					if (entry != null && obj != null) {
-						if (entry.conflictExists(obj)) {
-							result = true;
-							return result;
-						}
-					} 
+			for (int i = time; i < time+duration; i++ ) {
+				if (slotConflictExists(obj, i)) {
+					result = true;
+					return result;
 				}
 			}	
 		}
 		return result;
 	}
 	
-	protected Boolean freeOfCoordinatorConflicts(Activation obj, Integer requestedChannel, Integer time, Integer duration) {
+	protected Boolean freeOfCoordinatorConflicts(Activation obj, int requestedChannel, int time, int duration) {
 		var result = true;
 
 		if (time+(duration-1) >= endScheduleTime) {
@@ -454,11 +649,11 @@ public abstract class Schedule {
 		if (duration <= 0) {
 			result  = false;
 		} else {
-			for (Integer i = time; i < time+duration; i++ ) {
-				for (Integer channel = 0; channel < numChannels ; channel++) {
-					var entry = schedule.get(channel,time);
+			for (int i = time; i < time+duration; i++ ) {
+				for (int channel = 0; channel < numChannels ; channel++) {
+					var entry = schedule.get(channel,i);
 					if (entry != null && obj != null) {
-						if (entry.canCombine(obj) && channel != requestedChannel) {
+						if (entry.sharesCoordinator(obj) && channel != requestedChannel) {
 							result = false; // same coordinator is scheduled
 							return result;
 						}
@@ -473,29 +668,28 @@ public abstract class Schedule {
 	 * isAvailable returns true if the schedule for the channel is available in the 
 	 * interval [start, start+duration-1]
 	 */
-	protected Boolean isAvailable(Activation a1, Integer channel, Integer start, Integer duration) {
+	protected Boolean isAvailable(Activation a1, int channel, int start, int duration) {
 		var available = true;
 		
 		if (conflictsExist(a1,start,duration)) {
 			return false;
 		}
-		for (Integer j = start; j < start+duration; j++ ) {
+		/* only the first entry in the interval matters */
+		var j = schedule.nextOccupiedTime(channel, start);
+		if (j < start+duration && j < schedule.getNumColumns()) {
 			var currentEntry = schedule.get(channel,j);
-			if (currentEntry != null) {
-				if (currentEntry.canCombine(a1)) {
-					/* no conflict with this entry, and can
-					 * combine so check for combined entry time
-					 *  to see if we can combine activations
-					 */
-					var combinedDuration = currentEntry.getCombinedExecutionDuration(a1);
-					var combinedEntry = new CombinedActivation(currentEntry,a1);
-					var searchTime = currentEntry.getEndTime()+1;
-					var searchLength = combinedDuration - (duration-(j-start));
-					return isAvailable(combinedEntry, channel, searchTime, searchLength);
-				} else {
-					available = false;
-					break;
-				}
+			if (currentEntry.canCombine(a1)) {
+				/* no conflict with this entry, and can
+				 * combine so check for combined entry time
+				 *  to see if we can combine activations
+				 */
+				var combinedDuration = currentEntry.getCombinedExecutionDuration(a1);
+				var combinedEntry = new CombinedActivation(currentEntry,a1);
+				var searchTime = currentEntry.getEndTime()+1;
+				var searchLength = combinedDuration - (duration-(j-start));
+				return isAvailable(combinedEntry, channel, searchTime, searchLength);
+			} else {
+				available = false;
 			}
 		}
 		if (available) {
@@ -508,10 +702,10 @@ public abstract class Schedule {
 	 * isAvailable returns true if the schedule is available in the 
 	 * interval [start, start+duration-1] in any channel
 	 */
-	protected Boolean isAvailable(Activation a1, Integer start, Integer duration) {
+	protected Boolean isAvailable(Activation a1, int start, int duration) {
 		var available = false;
 		
-		for (Integer channel = 0; channel < numChannels; channel++) {
+		for (int channel = 0; channel < numChannels; channel++) {
 			if (isAvailable(a1,channel,start,duration)) {
 			available = true;
 			break;
@@ -524,16 +718,9 @@ public abstract class Schedule {
 	 * 
 	 * @return duration-vacantSlots
 	 */
-	protected Integer timeRemaining(Integer channel, Integer start, Integer duration) {
-		var result = duration;
-
-		var row = schedule.get(channel);
-		for (Integer i = start; i < start+duration; i++, result-- ) {
-			if (row.get(i) != null) {
-				break;
-			}
-		}
-		return result;
+	protected int timeRemaining(int channel, int start, int duration) {
+		var vacantSlots = Math.min(schedule.nextOccupiedTime(channel, start), start+duration) - start;
+		return duration - vacantSlots;
 	}
 	
 	
@@ -556,18 +743,16 @@ public abstract class Schedule {
 	}
 	
 		
-	private Boolean combinedEntriesInPlace(Activation a1, Activation a2, Integer channel) {
+	private Boolean combinedEntriesInPlace(Activation a1, Activation a2, int channel) {
 		var result = false;
 		if (canCombineEntriesInPlace(a1,a2)) {
 			var entry = new CombinedActivation(a1, a2);
 			var startTime = entry.getStartTime();
 			var endTime = entry.getEndTime();
-			for (int i = startTime; i <= endTime; i++) {
-				/* Add this object to the schedule for the
-				 * from startTime to endTime.
-				 */
-				schedule.set(channel, i, entry);
-			}
+			/* Add this object to the schedule for the
+			 * from startTime to endTime.
+			 */
+			setEntries(channel, startTime, endTime, entry);
 			result = true;
 		}
 		return result;
@@ -659,12 +844,10 @@ public abstract class Schedule {
 			entry.setEndTime(endTime);
 			next.setEndTime(endTime);
 		}
-		for (int i = startTime; i <= endTime; i++) {
-			/* Add this object to the schedule for the
-			 * from startTime to endTime.
-			 */
-			schedule.set(channel, i, entry);
-		}
+		/* Add this object to the schedule for the
+		 * from startTime to endTime.
+		 */
+		setEntries(channel, startTime, endTime, entry);
 		return true;
 	}
 
@@ -674,11 +857,12 @@ public abstract class Schedule {
 
 	public void printVerbose() {
 		System.out.println("\nSchedule:");
-		var endSchedule = schedule.get(0).size();
+		var endSchedule = schedule.getNumColumns();
 		for (int i = 0; i < numChannels; i++) {
 			System.out.printf("\nChannel: %d",i);
 			var name = UNKNOWN;
-			for (int j = 0; j < endSchedule; j++) {
+			/* skip the empty time slots between entries */
+			for (int j = schedule.nextOccupiedTime(i, 0); j < endSchedule; j = schedule.nextOccupiedTime(i, j+1)) {
 				var entry = schedule.get(i,j);
 				if (entry != null) {
 					var entryName = entry.getName();
@@ -693,11 +877,11 @@ public abstract class Schedule {
 
 	public void print() {
 		System.out.printf("\nSchedule (length is %d):\n", endScheduleTime);
-		for (int i = 0; i < schedule.size(); i++) {
+		for (int i = 0; i < schedule.getNumRows(); i++) {
 			System.out.printf("\nChannel: %d: ",i);
 			var name = UNKNOWN;
 			var startTime = -1;
-			for (int j = 0; j < endScheduleTime; j++) {
+			for (int j = schedule.nextOccupiedTime(i, 0); j < endScheduleTime; j = schedule.nextOccupiedTime(i, j+1)) {
 				var entry = schedule.get(i,j);
 				if (entry != null) {
 					var entryName = entry.getName();
@@ -712,12 +896,12 @@ public abstract class Schedule {
 			}
 		}
 		/* report the number of Activations not schedulable, if any */
-		ArrayList<Activation> notSchedulable = schedule.get(numChannels);
 		var numNotSchedulable = 0; 	
 		var name = UNKNOWN;
 		var lastStartTime = -1;
-		for (int i = 0; i < endScheduleTime; i++) {
-			var entry = notSchedulable.get(i);
+		for (int i = schedule.nextOccupiedTime(numChannels, 0); i < endScheduleTime; 
+				i = schedule.nextOccupiedTime(numChannels, i+1)) {
+			var entry = schedule.get(numChannels, i);
 			if (entry != null) {
 				var entryName = entry.getName();
 				if (!name.equals(entryName) || (name.equals(entryName) && lastStartTime != entry.getStartTime())) {
@@ -0,0 +1,60 @@
+package edu.uiowa.cs.warp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.uiowa.cs.warp.SystemAttributes.ScheduleChoices;
+
+/**
+ * Tests that a schedule whose hyperPeriod is too long to build is reported
+ * as not schedulable instead of being built.
+ */
+class ScheduleLengthTest {
+
+	private static final Integer CHANNELS = 4;
+
+	private WorkLoad workload;
+
+	@BeforeEach
+	public void setUp() {
+		workload = new WorkLoad(0, 0.9, 0.99, "StressTest.txt");
+		workload.setFlowsInPriorityOrder();
+	}
+
+	@Test
+	void testScheduleOfBundledWorkLoadIsBuilt() {
+		var schedule = new NonPreemptiveSchedule(new ConnectivityPoset(workload), CHANNELS);
+		assertEquals(300, schedule.getEndScheduleTime());
+		assertEquals(300, schedule.toProgram().size());
+	}
+
+	@Test
+	void testTooLongHyperPeriodIsNotSchedulable() {
+		setCoprimePeriods();
+		var schedule = new NonPreemptiveSchedule(new ConnectivityPoset(workload), CHANNELS);
+		assertFalse(schedule.schedulable);
+		assertEquals(0, schedule.getEndScheduleTime());
+		assertEquals(0, schedule.toProgram().size());
+	}
+
+	@Test
+	void testTooLongHyperPeriodIsNotProgrammed() {
+		setCoprimePeriods();
+		var warp = SystemFactory.create(workload, CHANNELS, ScheduleChoices.RM);
+		assertFalse(warp.deadlinesMet());
+		assertEquals(0, warp.toProgram().getSchedule().size());
+	}
+
+	/* co-prime periods whose hyperPeriod, 69,995,799,811, does not fit in an int */
+	private void setCoprimePeriods() {
+		var flowNames = workload.getFlowNames();
+		for (String flowName : flowNames) {
+			workload.setFlowPeriod(flowName, 1);
+		}
+		workload.setFlowPeriod(flowNames[0], 100003);
+		workload.setFlowPeriod(flowNames[1], 99991);
+		workload.setFlowPeriod(flowNames[2], 7);
+	}
+}
@@ -1,26 +1,386 @@
 package edu.uiowa.cs.warp;
 
-public class ScheduleTable extends Table<Activation,Row<Activation>> {
-	
-	/**
-	 * 
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * ScheduleTable holds the activations scheduled on each channel (row) at each
+ * time (column). Each channel is stored as a list of runs, i.e., maximal intervals
+ * of time holding the same activation, sorted by start time. Memory therefore
+ * scales with the number of activations rather than channels x hyperperiod, and
+ * finding the next occupied time is a binary search instead of a walk over the
+ * cells. The runs are kept in int arrays, so lookups do not allocate. Each
+ * channel also keeps a FreeTree of its free cells, so the first free interval
+ * of a given length is found in O(log hyperperiod) however many runs precede it.
+ *
+ * get and set keep the cell view of the original Table: get returns null for
+ * free cells and cells outside the table, and set ignores cells outside the
+ * table.
+ */
+public class ScheduleTable {
+
+	/* the runs [starts[i], ends[i]] holding entries[i] on one channel, sorted by start */
+	private static final class Runs {
+		int[] starts = new int[4];
+		int[] ends = new int[4];
+		Activation[] entries = new Activation[4];
+		int size = 0;
+
+		/* @return the index of the last run starting at or before time, or -1 */
+		int floor(int time) {
+			var low = 0;
+			var high = size - 1;
+			while (low <= high) {
+				var mid = (low + high) >>> 1;
+				if (starts[mid] <= time) {
+					low = mid + 1;
+				} else {
+					high = mid - 1;
+				}
+			}
+			return high;
+		}
+
+		/* replace the runs [from, to) with count runs to be entered by put */
+		void replace(int from, int to, int count) {
+			var newSize = size - (to - from) + count;
+			if (newSize > starts.length) {
+				var capacity = Math.max(newSize, 2 * starts.length);
+				starts = Arrays.copyOf(starts, capacity);
+				ends = Arrays.copyOf(ends, capacity);
+				entries = Arrays.copyOf(entries, capacity);
+			}
+			System.arraycopy(starts, to, starts, from + count, size - to);
+			System.arraycopy(ends, to, ends, from + count, size - to);
+			System.arraycopy(entries, to, entries, from + count, size - to);
+			for (int i = newSize; i < size; i++) {
+				entries[i] = null;
+			}
+			size = newSize;
+		}
+
+		void put(int index, int start, int end, Activation entry) {
+			starts[index] = start;
+			ends[index] = end;
+			entries[index] = entry;
+		}
+	}
+
+	/*
+	 * A segment tree over the time slots [0, length) of one channel that knows,
+	 * for each node, the longest free interval in it and the free intervals at its
+	 * two ends. A node whose time slots are all free or all occupied has no
+	 * children, so the tree only grows where runs begin and end. The nodes are
+	 * kept in int arrays, and the nodes dropped when a node becomes uniform again
+	 * are reused.
 	 */
-	private static final long serialVersionUID = 1L;
+	private static final class FreeTree {
+		private static final int NONE = -1;
+
+		private final int length;
+		private int[] left = new int[16];
+		private int[] right = new int[16];
+		private int[] prefix = new int[16]; // free time slots at the start of the node
+		private int[] suffix = new int[16]; // free time slots at the end of the node
+		private int[] longest = new int[16]; // longest free interval in the node
+		private int numNodes = 0;
+		private int freeNodes = NONE; // dropped nodes, linked through left
+
+		FreeTree(int length) {
+			this.length = length;
+			newNode(length, true);
+		}
+
+		/* mark the time slots [start, end] free or occupied; they must be in the tree */
+		void set(int start, int end, boolean free) {
+			set(0, 0, length, start, end + 1, free);
+		}
+
+		/*
+		 * @return the first time t at or after time such that [t, t+duration-1] is
+		 * free, or length if there is none. time must be in [0, length) and
+		 * duration > 0.
+		 */
+		int firstFree(int time, int duration) {
+			var found = firstFree(0, 0, length, time, duration, 0);
+			return (found < 0) ? length : found;
+		}
+
+		/*
+		 * Scan the nodes covering [time, hi) of node from left to right. carry is the
+		 * number of free time slots that end at lo, counted from time. Returns the
+		 * start found, or -1 - carry for the free time slots that end at hi.
+		 */
+		private int firstFree(int node, int lo, int hi, int time, int duration, int carry) {
+			if (time <= lo) {
+				if (carry + prefix[node] >= duration) {
+					return lo - carry;
+				}
+				if (longest[node] >= duration) {
+					return leftmost(node, lo, hi, duration, carry);
+				}
+				return -1 - ((prefix[node] == hi - lo) ? carry + hi - lo : suffix[node]);
+			}
+			if (left[node] == NONE) { // uniform, so free from time to hi or not at all
+				if (prefix[node] == 0) {
+					return -1;
+				}
+				return (hi - time >= duration) ? time : -1 - (hi - time);
+			}
+			var mid = (lo + hi) >>> 1;
+			if (time < mid) {
+				var found = firstFree(left[node], lo, mid, time, duration, carry);
+				if (found >= 0) {
+					return found;
+				}
+				carry = -1 - found;
+			}
+			return firstFree(right[node], mid, hi, time, duration, carry);
+		}
+
+		/* the first start in node, after carry free time slots, of duration free time slots */
+		private int leftmost(int node, int lo, int hi, int duration, int carry) {
+			while (left[node] != NONE) {
+				if (carry + prefix[node] >= duration) {
+					return lo - carry;
+				}
+				var mid = (lo + hi) >>> 1;
+				var l = left[node];
+				if (carry + prefix[l] >= duration || longest[l] >= duration) {
+					node = l;
+					hi = mid;
+				} else {
+					carry = (prefix[l] == mid - lo) ? carry + mid - lo : suffix[l];
+					node = right[node];
+					lo = mid;
+				}
+			}
+			return lo - carry; // a free uniform node
+		}
+
+		private void set(int node, int lo, int hi, int start, int end, boolean free) {
+			if (start <= lo && hi <= end) {
+				dropChildren(node);
+				setUniform(node, hi - lo, free);
+				return;
+			}
+			if (left[node] == NONE) {
+				if ((prefix[node] > 0) == free) {
+					return; // already free or occupied
+				}
+				var mid = (lo + hi) >>> 1;
+				var wasFree = !free;
+				var l = newNode(mid - lo, wasFree);
+				var r = newNode(hi - mid, wasFree);
+				left[node] = l;
+				right[node] = r;
+			}
+			var mid = (lo + hi) >>> 1;
+			if (start < mid) {
+				set(left[node], lo, mid, start, end, free);
+			}
+			if (end > mid) {
+				set(right[node], mid, hi, start, end, free);
+			}
+			var l = left[node];
+			var r = right[node];
+			if (left[l] == NONE && left[r] == NONE && (prefix[l] > 0) == (prefix[r] > 0)) {
+				/* both halves are uniform, and both are free or both are occupied */
+				dropChildren(node);
+				setUniform(node, hi - lo, prefix[r] > 0);
+				return;
+			}
+			prefix[node] = (prefix[l] == mid - lo) ? prefix[l] + prefix[r] : prefix[l];
+			suffix[node] = (suffix[r] == hi - mid) ? suffix[r] + suffix[l] : suffix[r];
+			longest[node] = Math.max(Math.max(longest[l], longest[r]), suffix[l] + prefix[r]);
+		}
+
+		private void setUniform(int node, int size, boolean free) {
+			var freeSlots = free ? size : 0;
+			prefix[node] = freeSlots;
+			suffix[node] = freeSlots;
+			longest[node] = freeSlots;
+		}
+
+		private void dropChildren(int node) {
+			if (left[node] != NONE) {
+				dropNode(left[node]);
+				dropNode(right[node]);
+				left[node] = NONE;
+				right[node] = NONE;
+			}
+		}
+
+		private void dropNode(int node) {
+			dropChildren(node);
+			left[node] = freeNodes;
+			freeNodes = node;
+		}
+
+		private int newNode(int size, boolean free) {
+			int node;
+			if (freeNodes != NONE) {
+				node = freeNodes;
+				freeNodes = left[node];
+			} else {
+				if (numNodes == left.length) {
+					var capacity = 2 * numNodes;
+					left = Arrays.copyOf(left, capacity);
+					right = Arrays.copyOf(right, capacity);
+					prefix = Arrays.copyOf(prefix, capacity);
+					suffix = Arrays.copyOf(suffix, capacity);
+					longest = Arrays.copyOf(longest, capacity);
+				}
+				node = numNodes++;
+			}
+			left[node] = NONE;
+			right[node] = NONE;
+			setUniform(node, size, free);
+			return node;
+		}
+	}
+
+	private final ArrayList<Runs> channels;
+	private final ArrayList<FreeTree> freeTimes;
+	private final int numColumns;
 
 	ScheduleTable(){
-		super();
+		this(0,0);
 	}
-	
+
 	/**
 	 * Constructor creates a table row x column in size, full
 	 * of null values.
-	 * 
-	 * @param row
-	 * @param column
+	 *
+	 * @param row the number of channels
+	 * @param column the number of time slots
 	 */
 	ScheduleTable(Integer row, Integer column){
-		super(row,column);
-		
+		channels = new ArrayList<Runs>(row);
+		freeTimes = new ArrayList<FreeTree>(row);
+		for (int i = 0; i < row; i++) {
+			channels.add(new Runs());
+			freeTimes.add(new FreeTree(column));
+		}
+		numColumns = column;
+	}
+
+	public Integer getNumRows() {
+		return channels.size();
+	}
+
+	public Integer getNumColumns() {
+		return (channels.size() > 0) ? numColumns : 0;
+	}
+
+	/**
+	 * @return the activation at (channel, time), or null if the cell is free or
+	 *         not in the table
+	 */
+	public Activation get(int channel, int time) {
+		if (channel < 0 || channel >= channels.size() || time < 0 || time >= numColumns) {
+			return null;
+		}
+		var runs = channels.get(channel);
+		var i = runs.floor(time);
+		if (i >= 0 && runs.ends[i] >= time) {
+			return runs.entries[i];
+		}
+		return null;
+	}
+
+	/**
+	 * Set the activation at (channel, time); null frees the cell.
+	 */
+	public void set(int channel, int time, Activation entry) {
+		set(channel, time, time, entry);
+	}
+
+	/**
+	 * Set the activation of every cell in [start, end] of channel; null frees
+	 * the cells. Cells outside the table are ignored.
+	 */
+	public void set(int channel, int start, int end, Activation entry) {
+		if (channel < 0 || channel >= channels.size()) {
+			return;
+		}
+		start = Math.max(start, 0);
+		end = Math.min(end, numColumns-1);
+		if (start > end) {
+			return;
+		}
+		freeTimes.get(channel).set(start, end, entry == null);
+		var runs = channels.get(channel);
+		/* runs first..last overlap [start, end] */
+		var first = runs.floor(start);
+		if (first < 0 || runs.ends[first] < start) {
+			first++;
+		}
+		var last = runs.floor(end);
+		/* keep the parts of the first and last runs outside [start, end] */
+		var keepLeft = first <= last && runs.starts[first] < start;
+		var leftStart = keepLeft ? runs.starts[first] : 0;
+		var leftEntry = keepLeft ? runs.entries[first] : null;
+		var keepRight = first <= last && runs.ends[last] > end;
+		var rightEnd = keepRight ? runs.ends[last] : 0;
+		var rightEntry = keepRight ? runs.entries[last] : null;
+		if (entry != null) {
+			/* merge with adjacent runs of the same entry */
+			if (keepLeft && leftEntry == entry) {
+				start = leftStart;
+				keepLeft = false;
+			} else if (!keepLeft && first > 0 && runs.ends[first-1] == start-1 && runs.entries[first-1] == entry) {
+				first--;
+				start = runs.starts[first];
+			}
+			if (keepRight && rightEntry == entry) {
+				end = rightEnd;
+				keepRight = false;
+			} else if (!keepRight && last+1 < runs.size && runs.starts[last+1] == end+1 && runs.entries[last+1] == entry) {
+				last++;
+				end = runs.ends[last];
+			}
+		}
+		var count = (keepLeft ? 1 : 0) + (entry != null ? 1 : 0) + (keepRight ? 1 : 0);
+		runs.replace(first, last+1, count);
+		var index = first;
+		if (keepLeft) {
+			runs.put(index++, leftStart, start-1, leftEntry);
+		}
+		if (entry != null) {
+			runs.put(index++, start, end, entry);
+		}
+		if (keepRight) {
+			runs.put(index, end+1, rightEnd, rightEntry);
+		}
+	}
+
+	/**
+	 * @return the first time at or after time that is occupied on channel, or
+	 *         getNumColumns() if there is none
+	 */
+	public int nextOccupiedTime(int channel, int time) {
+		var runs = channels.get(channel);
+		var i = runs.floor(time);
+		if (i >= 0 && runs.ends[i] >= time) {
+			return time;
+		}
+		return (i+1 < runs.size) ? runs.starts[i+1] : numColumns;
+	}
+
+	/**
+	 * @return the first time t at or after time such that [t, t+duration-1] is
+	 *         free on channel and in the table, or getNumColumns() if there is none
+	 */
+	public int firstFreeTime(int channel, int time, int duration) {
+		var t = Math.max(time, 0);
+		if (t + duration > numColumns) {
+			return numColumns;
+		}
+		if (duration <= 0) {
+			return t;
+		}
+		return freeTimes.get(channel).firstFree(t, duration);
 	}
 
 }
@@ -0,0 +1,74 @@
+package edu.uiowa.cs.warp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the run-based ScheduleTable against a plain array of cells.
+ */
+class ScheduleTableTest {
+
+	private static final int CHANNELS = 3;
+	private static final int TIME_SLOTS = 60;
+
+	@Test
+	void testMatchesCellArray() {
+		var random = new Random(2820);
+		var activations = new Activation[] {null, new Activation("A"), new Activation("B"), new Activation("C")};
+		var table = new ScheduleTable(CHANNELS, TIME_SLOTS);
+		var cells = new Activation[CHANNELS][TIME_SLOTS];
+
+		for (int step = 0; step < 2000; step++) {
+			var channel = random.nextInt(CHANNELS);
+			var start = random.nextInt(TIME_SLOTS + 10) - 5;
+			var end = start + random.nextInt(12);
+			var entry = activations[random.nextInt(activations.length)];
+			table.set(channel, start, end, entry);
+			for (int time = Math.max(start, 0); time <= end && time < TIME_SLOTS; time++) {
+				cells[channel][time] = entry;
+			}
+
+			for (int time = 0; time < TIME_SLOTS; time++) {
+				assertSame(cells[channel][time], table.get(channel, time), "cell " + channel + "," + time);
+			}
+			for (int time = 0; time < TIME_SLOTS; time++) {
+				var duration = 1 + random.nextInt(TIME_SLOTS);
+				assertEquals(nextOccupiedTime(cells[channel], time), table.nextOccupiedTime(channel, time));
+				assertEquals(firstFreeTime(cells[channel], time, duration), table.firstFreeTime(channel, time, duration),
+						"first free " + channel + "," + time + "," + duration);
+			}
+		}
+	}
+
+	@Test
+	void testCellsOutsideTheTable() {
+		var table = new ScheduleTable(CHANNELS, TIME_SLOTS);
+		var activation = new Activation("A");
+		table.set(CHANNELS, 0, activation);
+		table.set(0, TIME_SLOTS, activation);
+		assertNull(table.get(CHANNELS, 0));
+		assertNull(table.get(0, TIME_SLOTS));
+		assertEquals(TIME_SLOTS, table.nextOccupiedTime(0, 0));
+		assertEquals(CHANNELS, table.getNumRows());
+		assertEquals(TIME_SLOTS, table.getNumColumns());
+	}
+
+	private int nextOccupiedTime(Activation[] row, int time) {
+		while (time < row.length && row[time] == null) {
+			time++;
+		}
+		return time;
+	}
+
+	private int firstFreeTime(Activation[] row, int time, int duration) {
+		for (int t = time; t + duration <= row.length; t++) {
+			if (nextOccupiedTime(row, t) - t >= duration) {
+				return t;
+			}
+		}
+		return row.length;
+	}
+}
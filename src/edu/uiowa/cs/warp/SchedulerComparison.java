@@ -0,0 +1,61 @@
+package edu.uiowa.cs.warp;
+
+/**
+ * SchedulerComparison is a table that compares the programs that different
+ * schedulers built for the same workload: one row per scheduler, with the
+ * length of its schedule, the number of deadline misses and the wall time
+ * taken to build, verify and visualize its program.
+ *
+ */
+public class SchedulerComparison {
+
+	private static final String ROW_FORMAT = "%-30s %10s %16s %12s\n";
+
+	private Description comparison;
+
+	/**
+	 * Constructor creates an empty comparison.
+	 *
+	 * @param name the name of the workload
+	 * @param numChannels the number of channels the schedulers used
+	 * @param numThreads the number of threads the schedulers ran on
+	 */
+	SchedulerComparison(String name, Integer numChannels, Integer numThreads) {
+		comparison = new Description();
+		comparison.add(String.format("Scheduler comparison for %s with %d channels on %d threads:\n",
+				name, numChannels, numThreads));
+		comparison.add(String.format(ROW_FORMAT, "Scheduler", "Length", "Deadline misses", "Time (ms)"));
+	}
+
+	/**
+	 * Add the row for the program of warp.
+	 *
+	 * @param warp the system built by one of the schedulers
+	 * @param wallTime nanoseconds taken to build, verify and visualize warp
+	 */
+	public void add(WarpInterface warp, long wallTime) {
+		var program = warp.toProgram();
+		comparison.add(String.format(ROW_FORMAT, warp.getSchedulerName(),
+				String.valueOf(program.getSchedule().size()),
+				String.valueOf(program.deadlineMisses().size()),
+				String.format("%.1f", wallTime / 1e6)));
+	}
+
+	/**
+	 * Add a row for a scheduler that failed to build its program.
+	 *
+	 * @param choice the scheduler that failed
+	 */
+	public void addFailure(SystemAttributes.ScheduleChoices choice) {
+		comparison.add(String.format(ROW_FORMAT, choice.toString(), "-", "-", "FAILED"));
+	}
+
+	public Description toDescription() {
+		return comparison;
+	}
+
+	@Override
+	public String toString() {
+		return comparison.toString();
+	}
+}
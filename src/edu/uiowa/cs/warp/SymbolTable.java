@@ -0,0 +1,71 @@
+package edu.uiowa.cs.warp;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * SymbolTable assigns dense int ids (0, 1, 2, ...) to names in the order they are first seen.
+ * WorkLoad keeps one for its nodes and one for its flows, so schedulers and analyses can index
+ * arrays by id instead of looking names up in a map.
+ *
+ * @version 1.4
+ *
+ */
+public class SymbolTable {
+
+  /**
+   * Returned by getId for names that are not in the table.
+   */
+  public static final int NO_ID = -1;
+
+  private final HashMap<String, Integer> ids = new HashMap<>();
+  private final ArrayList<String> names = new ArrayList<>();
+
+  /**
+   * Returns the id of name, assigning it the next id if it is not in the table yet.
+   *
+   * @param name the name to look up or add
+   * @return the id of name
+   */
+  public int intern(String name) {
+    var id = ids.get(name);
+    if (id == null) {
+      id = names.size();
+      ids.put(name, id);
+      names.add(name);
+    }
+    return id;
+  }
+
+  /**
+   * @param name the name to look up
+   * @return the id of name, or NO_ID if name is not in the table
+   */
+  public int getId(String name) {
+    var id = ids.get(name);
+    return (id != null) ? id : NO_ID;
+  }
+
+  /**
+   * @param id an id in 0..size()-1
+   * @return the name with the id
+   */
+  public String getName(int id) {
+    return names.get(id);
+  }
+
+  /**
+   * @return true if name is in the table
+   */
+  public boolean contains(String name) {
+    return ids.containsKey(name);
+  }
+
+  /**
+   * @return the number of names in the table, which is also the next id to be assigned
+   */
+  public int size() {
+    return names.size();
+  }
+
+}
@@ -0,0 +1,75 @@
+package edu.uiowa.cs.warp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+
+/**
+ * ThreadOutput is an output stream that writes to target, except on threads that are
+ * capturing their output: what those threads write is kept in a buffer of their own.
+ * Installed as System.out and System.err, it lets tasks that run concurrently print
+ * as usual, while their output is reported in a fixed order after they finish.
+ *
+ */
+class ThreadOutput extends OutputStream {
+
+	private final PrintStream target;
+	private final ThreadLocal<ArrayDeque<ByteArrayOutputStream>> buffers =
+			ThreadLocal.withInitial(ArrayDeque::new);
+
+	ThreadOutput(PrintStream target) {
+		this.target = target;
+	}
+
+	/**
+	 * @return the stream written to by threads that are not capturing their output
+	 */
+	public PrintStream getTarget() {
+		return target;
+	}
+
+	/**
+	 * Start capturing what the current thread writes.
+	 */
+	public void beginCapture() {
+		buffers.get().push(new ByteArrayOutputStream());
+	}
+
+	/**
+	 * Stop capturing what the current thread writes.
+	 *
+	 * @return what the current thread wrote since the matching beginCapture
+	 */
+	public String endCapture() {
+		var captured = buffers.get().poll();
+		return (captured == null) ? "" : captured.toString();
+	}
+
+	@Override
+	public void write(int b) {
+		var captured = buffers.get().peek();
+		if (captured != null) {
+			captured.write(b);
+		} else {
+			target.write(b);
+		}
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) {
+		var captured = buffers.get().peek();
+		if (captured != null) {
+			captured.write(b, off, len);
+		} else {
+			target.write(b, off, len);
+		}
+	}
+
+	@Override
+	public void flush() {
+		if (buffers.get().isEmpty()) {
+			target.flush();
+		}
+	}
+}
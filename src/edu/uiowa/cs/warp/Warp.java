@@ -5,6 +5,16 @@ import argparser.BooleanHolder;
 import argparser.DoubleHolder;
 import argparser.IntHolder;
 import argparser.StringHolder;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import edu.uiowa.cs.warp.SystemAttributes.ScheduleChoices;
 import edu.uiowa.cs.warp.Visualization.SystemChoices;
 import edu.uiowa.cs.warp.Visualization.WorkLoadChoices;
@@ -73,6 +83,16 @@ public class Warp {
  */
   private static final Integer DEFAULT_FAULTS_TOLERATED = 0;
 
+  /**
+ * The file, in the output directory, where the summary of a batch is written.
+ */
+  private static final String BATCH_SUMMARY_FILE = "BatchSummary.csv";
+
+  /**
+ * The suffix of the file, in the output directory, where the grid of a parameter sweep is written.
+ */
+  private static final String SWEEP_GRID_SUFFIX = "ParameterSweep.txt";
+
   
   /**
  * The number of wireless channels available for scheduling.
@@ -166,12 +186,54 @@ public class Warp {
  * Input file from which the graph workload is read.
  */
   private static String inputFile;  
+
+  /**
+ * Directory, glob or manifest of the workload files to process in one run; null when a
+ * single input file is processed.
+ */
+  private static String batchInput;
+
+  /**
+ * Server (daemon) mode requested flag.
+ */
+  private static Boolean serverRequested;
+
+  /**
+ * Port the server listens on; 0 when the server answers on stdin/stdout.
+ */
+  private static Integer serverPort;
+
+  /**
+ * Comma separated values of m to sweep; null when m is not swept.
+ */
+  private static String sweepMs;
+
+  /**
+ * Comma separated values of e2e to sweep; null when e2e is not swept.
+ */
+  private static String sweepE2es;
+
+  /**
+ * Comma separated numbers of faults per edge to sweep; null when faults are not swept.
+ */
+  private static String sweepFaults;
+
+  /**
+ * True if a sweep bounds its searches by the results of the points with cheaper flows.
+ */
+  private static Boolean sweepBounds;
   
   /**
  * Type of scheduler that is requested.
  */
   private static ScheduleChoices schedulerSelected; 
 
+  /**
+ * Number of threads that evaluate the scheduler choices in all mode; 0 evaluates them
+ * one after another on the main thread.
+ */
+  private static Integer numThreads;
+
 
   /**
    * Main method for WARP program. Makes a call to WARP system parameters and prints accordingly.
@@ -191,9 +253,31 @@ public class Warp {
       printWarpParameters();
     }
 
-    // Create and visualize the workload
-    // inputFile string, which may be null,
-    WorkLoad workLoad = new WorkLoad(numFaults, minLQ, e2e, inputFile);
+    if (serverRequested) { // answer requests until the server is shut down
+      runServer();
+    } else if (batchInput != null) { // schedule and analyze each workload file of the batch
+      runBatch();
+    } else if (sweepMs != null || sweepE2es != null || sweepFaults != null) {
+      runSweep(); // find the minimum number of channels for each point of the sweep
+    } else {
+      // Create and visualize the workload
+      // inputFile string, which may be null,
+      WorkLoad workLoad = new WorkLoad(numFaults, minLQ, e2e, inputFile);
+      workLoad.freeze(); // schedulers only read the workload, so they can share it
+      schedule(workLoad, numThreads > 0);
+    }
+  }
+
+  /**
+   * Visualizes workLoad and builds, verifies and visualizes the systems requested for it.
+ * @param workLoad the frozen WorkLoad to build systems for
+ * @param concurrently true if all scheduler choices, when requested, are evaluated on a pool of
+ *        numThreads threads and compared (see compareSchedulers)
+ * @return the systems built, in the order of the scheduler choices; empty when the schedulers
+ *         were compared
+ */
+  private static ArrayList<WarpInterface> schedule(WorkLoad workLoad, boolean concurrently) {
+    var systems = new ArrayList<WarpInterface>();
     if (allRequested) {
       for (WorkLoadChoices choice : WorkLoadChoices.values()) {
         visualize(workLoad, choice); // visualize all Program choices
@@ -205,14 +289,17 @@ public class Warp {
         for (SystemChoices choice : SystemChoices.values()) {
           visualize(warp, choice); // visualize all System choices
         }
+        systems.add(warp);
+      } else if (concurrently) { // evaluate all scheduler choices concurrently
+        compareSchedulers(workLoad);
       } else { // create a system for all scheduler choices
         for (ScheduleChoices sch : ScheduleChoices.values()) {
-          schedulerSelected = sch;
-          WarpInterface warp = SystemFactory.create(workLoad, nChannels, schedulerSelected);
-          verifyPerformanceRequirements(warp);
+          WarpInterface warp = SystemFactory.create(workLoad, nChannels, sch);
+          verifyPerformanceRequirements(warp, sch);
           for (SystemChoices choice : SystemChoices.values()) {
             visualize(warp, choice); // visualize all System choices
           }
+          systems.add(warp);
         }
       }
     } else { // visualize warp workload, source program and other requested items
@@ -238,8 +325,307 @@ public class Warp {
       if (raRequested) {
         visualize(warp, SystemChoices.RELIABILITIES);
       }
+      systems.add(warp);
     }
+    return systems;
+  }
 
+  /**
+   * Processes each workload file of the batch as if it were the input file, on a work-stealing
+   * pool of numThreads threads (all processors by default), and writes a summary of the systems
+   * built to BATCH_SUMMARY_FILE in the output directory. What is printed for a file is captured
+   * while it is processed and printed in the order of the files, after the name of the file.
+   * The outputs of every file are written to the same output directory, so the batch is
+   * rejected when two of its files have the same name once their directory and extension are
+   * removed.
+   */
+  private static void runBatch() {
+    var fm = new FileManager();
+    var files = fm.findWorkLoadFiles(batchInput);
+    if (files.isEmpty()) {
+      System.err.printf("\n\tERROR: no workload files found in %s\n", batchInput);
+      return;
+    }
+    var inputs = new HashMap<String, String>(); // the first file with each output name
+    for (String file : files) {
+      var other = inputs.putIfAbsent(outputName(file), file);
+      if (other != null) { // both would write the same output files
+        System.err.printf("\n\tERROR: %s and %s would write the same output files in %s\n",
+            other, file, outputSubDirectory);
+        return;
+      }
+    }
+    guiRequested = false; // a batch is never displayed
+    var threads = (numThreads > 0) ? numThreads : Runtime.getRuntime().availableProcessors();
+    var out = new ThreadOutput(System.out);
+    var err = new ThreadOutput(System.err);
+    System.setOut(new PrintStream(out, true));
+    System.setErr(new PrintStream(err, true));
+    var executor = Executors.newWorkStealingPool(threads);
+    try {
+      var evaluations = new ArrayList<Future<BatchEvaluation>>();
+      for (String file : files) {
+        evaluations.add(executor.submit(() -> evaluate(file, out, err)));
+      }
+      var summary = new BatchSummary();
+      for (int i = 0; i < files.size(); i++) {
+        try {
+          var evaluation = evaluations.get(i).get();
+          printCaptured(out.getTarget(), files.get(i), evaluation.out);
+          printCaptured(err.getTarget(), files.get(i), evaluation.err);
+          for (String row : evaluation.rows) {
+            summary.add(row);
+          }
+        } catch (ExecutionException e) {
+          var cause = e.getCause();
+          while (cause.getCause() != null) { // the pool may wrap what the task threw
+            cause = cause.getCause();
+          }
+          err.getTarget().printf("\n\tERROR: %s failed: %s\n", files.get(i), cause.toString());
+          summary.add(BatchSummary.failureRow(files.get(i)));
+        }
+      }
+      var directory = fm.createDirectory(fm.getBaseDirectory(), outputSubDirectory);
+      var summaryFile = Path.of(directory, BATCH_SUMMARY_FILE).toString();
+      fm.writeFile(summaryFile, summary.toString());
+      out.getTarget().printf("Summary of %d workload files written to %s\n", files.size(),
+          summaryFile);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      executor.shutdownNow();
+      System.setOut(out.getTarget());
+      System.setErr(err.getTarget());
+    }
+  }
+
+  /**
+   * The name the visualizations of file are written under: its name without directory and
+   * extension, so files in different directories or with different extensions can share it.
+ * @param file the path of a workload file
+ * @return the name of its output files, without their suffix
+ */
+  private static String outputName(String file) {
+    var name = Path.of(file).getFileName().toString();
+    var suffixIndex = name.lastIndexOf('.');
+    return (suffixIndex > 0) ? name.substring(0, suffixIndex) : name;
+  }
+
+  /**
+   * Sweeps the input file's workload over the values of m, e2e and faults requested, the single
+   * WARP system parameter being used for a parameter that isn't swept, and prints and writes the
+   * grid of the minimum number of channels, up to nChannels, that meets every deadline under the
+   * selected scheduler. The sweep runs on numThreads threads (all processors by default), and
+   * only bounds its searches by cheaper points when sweepBounds is set.
+   */
+  private static void runSweep() {
+    var ms = parseSweep(sweepMs, minLQ, Double::valueOf);
+    var e2es = parseSweep(sweepE2es, e2e, Double::valueOf);
+    var faults = parseSweep(sweepFaults, numFaults, Integer::valueOf);
+    if (ms == null || e2es == null || faults == null) {
+      return;
+    }
+    for (Double value : ms) {
+      if (value < 0.5 || value > 1.0) {
+        System.err.printf("\n\tERROR: swept m %s is not in [0.5,1.0]\n", String.valueOf(value));
+        return;
+      }
+    }
+    for (Double value : e2es) {
+      if (value < 0.5 || value > 1.0) {
+        System.err.printf("\n\tERROR: swept e2e %s is not in [0.5,1.0]\n", String.valueOf(value));
+        return;
+      }
+    }
+    for (Integer value : faults) {
+      if (value < 0 || value > 10) {
+        System.err.printf("\n\tERROR: swept faults %d is not in [0,10]\n", value);
+        return;
+      }
+    }
+    WorkLoad workLoad = new WorkLoad(numFaults, minLQ, e2e, inputFile);
+    var threads = (numThreads > 0) ? numThreads : Runtime.getRuntime().availableProcessors();
+    var sweep = new ParameterSweep(workLoad, schedulerSelected, nChannels, threads, sweepBounds);
+    try {
+      sweep.sweep(faults, ms, e2es);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    } catch (ExecutionException e) {
+      System.err.printf("\n\tERROR: parameter sweep failed: %s\n", e.getCause().toString());
+      return;
+    }
+    System.out.print(sweep.toString());
+    var fm = new FileManager();
+    var directory = fm.createDirectory(fm.getBaseDirectory(), outputSubDirectory);
+    var gridFile = Path.of(directory, workLoad.getName() + SWEEP_GRID_SUFFIX).toString();
+    fm.writeFile(gridFile, sweep.toString());
+  }
+
+  /**
+   * Parses the comma separated values of a swept parameter.
+ * @param values the values, or null when the parameter is not swept
+ * @param value the value of the parameter when it is not swept
+ * @param parser converts one value
+ * @return the values, or null if one of them could not be parsed
+ */
+  private static <T> ArrayList<T> parseSweep(String values, T value,
+      Function<String, T> parser) {
+    var parsed = new ArrayList<T>();
+    if (values == null) {
+      parsed.add(value);
+      return parsed;
+    }
+    for (String token : values.split(",")) {
+      try {
+        var next = parser.apply(token.trim());
+        if (!parsed.contains(next)) {
+          parsed.add(next);
+        }
+      } catch (NumberFormatException e) {
+        System.err.printf("\n\tERROR: %s is not a number in the sweep %s\n", token, values);
+        return null;
+      }
+    }
+    return parsed;
+  }
+
+  /**
+   * Runs a WarpServer whose requests default to the WARP system parameters, on serverPort if
+   * it is set and on stdin/stdout otherwise.
+   */
+  private static void runServer() {
+    var server = new WarpServer(schedulerSelected, nChannels, minLQ, e2e, numFaults,
+        WarpServer.DEFAULT_CACHE_CAPACITY);
+    try {
+      if (serverPort > 0) {
+        server.serve(serverPort);
+      } else {
+        server.serveStandardStreams();
+      }
+    } catch (IOException e) {
+      System.err.printf("\n\tERROR: WARP server stopped: %s\n", e.getMessage());
+    }
+  }
+
+  /**
+   * Reads the workload in file and builds, verifies and visualizes its systems, capturing what
+   * it prints to out and err. Fails if file doesn't exist.
+   */
+  private static BatchEvaluation evaluate(String file, ThreadOutput out, ThreadOutput err) {
+    var evaluation = new BatchEvaluation();
+    out.beginCapture();
+    err.beginCapture();
+    try {
+      if (!Files.isRegularFile(Path.of(file))) { // a missing input file would exit the batch
+        throw new IllegalArgumentException("input file " + file + " doesn't exist");
+      }
+      WorkLoad workLoad = new WorkLoad(numFaults, minLQ, e2e, file);
+      workLoad.freeze();
+      for (WarpInterface warp : schedule(workLoad, false)) {
+        evaluation.rows.add(BatchSummary.programRow(file, warp));
+      }
+    } finally {
+      evaluation.out = out.endCapture();
+      evaluation.err = err.endCapture();
+    }
+    return evaluation;
+  }
+
+  /**
+   * The summary rows of the systems built for one workload file and what was printed.
+   */
+  private static class BatchEvaluation {
+    ArrayList<String> rows = new ArrayList<String>();
+    String out;
+    String err;
+  }
+
+  /**
+   * Prints what was captured while file was processed, if anything, after the name of the file.
+   */
+  private static void printCaptured(PrintStream stream, String file, String captured) {
+    if (!captured.isEmpty()) {
+      stream.printf("%s:\n%s\n", file, captured);
+    }
+  }
+
+  /**
+   * Builds, verifies and visualizes a system for every scheduler choice on a pool of numThreads
+   * threads, then prints a comparison of the schedulers. What a scheduler prints is captured
+   * while it runs and printed in the order of the scheduler choices, so the output does not
+   * depend on the order in which the schedulers finish.
+ * @param workLoad the frozen WorkLoad all schedulers build a program for
+ */
+  private static void compareSchedulers(WorkLoad workLoad) {
+    var choices = ScheduleChoices.values();
+    var threads = Math.min(numThreads, choices.length);
+    var out = new ThreadOutput(System.out);
+    var err = new ThreadOutput(System.err);
+    System.setOut(new PrintStream(out, true));
+    System.setErr(new PrintStream(err, true));
+    var executor = Executors.newFixedThreadPool(threads);
+    try {
+      var evaluations = new ArrayList<Future<SchedulerEvaluation>>();
+      for (ScheduleChoices sch : choices) {
+        evaluations.add(executor.submit(() -> evaluate(workLoad, sch, out, err)));
+      }
+      var comparison = new SchedulerComparison(workLoad.getName(), nChannels, threads);
+      for (int i = 0; i < choices.length; i++) {
+        try {
+          var evaluation = evaluations.get(i).get();
+          out.getTarget().print(evaluation.out);
+          err.getTarget().print(evaluation.err);
+          comparison.add(evaluation.warp, evaluation.wallTime);
+        } catch (ExecutionException e) {
+          err.getTarget().printf("\n\tERROR: %s scheduling failed: %s\n", choices[i].toString(),
+              e.getCause().toString());
+          comparison.addFailure(choices[i]);
+        }
+      }
+      out.getTarget().println();
+      out.getTarget().print(comparison.toString());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      executor.shutdownNow();
+      System.setOut(out.getTarget());
+      System.setErr(err.getTarget());
+    }
+  }
+
+  /**
+   * Builds, verifies and visualizes the system for one scheduler choice on workLoad, capturing
+   * what it prints to out and err.
+   */
+  private static SchedulerEvaluation evaluate(WorkLoad workLoad, ScheduleChoices sch,
+      ThreadOutput out, ThreadOutput err) {
+    var evaluation = new SchedulerEvaluation();
+    out.beginCapture();
+    err.beginCapture();
+    try {
+      var startTime = System.nanoTime();
+      evaluation.warp = SystemFactory.create(workLoad, nChannels, sch);
+      verifyPerformanceRequirements(evaluation.warp, sch);
+      for (SystemChoices choice : SystemChoices.values()) {
+        visualize(evaluation.warp, choice); // visualize all System choices
+      }
+      evaluation.wallTime = System.nanoTime() - startTime;
+    } finally {
+      evaluation.out = out.endCapture();
+      evaluation.err = err.endCapture();
+    }
+    return evaluation;
+  }
+
+  /**
+   * The system one scheduler built, how long that took and what it printed.
+   */
+  private static class SchedulerEvaluation {
+    WarpInterface warp;
+    long wallTime;
+    String out;
+    String err;
   }
 
   /**
@@ -286,8 +672,17 @@ public class Warp {
  * @param warp Refers to the main WARP interface.
  */
   private static void verifyPerformanceRequirements(WarpInterface warp) {
-    verifyDeadlines(warp);
-    verifyReliabilities(warp);
+    verifyPerformanceRequirements(warp, schedulerSelected);
+  }
+
+  /**
+   * Checks if performance-based requirements are met by the system that sch built.
+ * @param warp Refers to the main WARP interface.
+ * @param sch the scheduler that built warp
+ */
+  private static void verifyPerformanceRequirements(WarpInterface warp, ScheduleChoices sch) {
+    verifyDeadlines(warp, sch);
+    verifyReliabilities(warp, sch);
     verifyNoChannelConflicts(warp);
   }
 
@@ -295,19 +690,20 @@ public class Warp {
    * Checks for the flow reliabilities. An error is printed if flows don't
    * meet the reliability target.
  * @param warp Refers to the main WARP interface.
+ * @param sch the scheduler that built warp
  */
-  private static void verifyReliabilities(WarpInterface warp) {
-    if (schedulerSelected != ScheduleChoices.RTHART) {
+  private static void verifyReliabilities(WarpInterface warp, ScheduleChoices sch) {
+    if (sch != ScheduleChoices.RTHART) {
       /* RealTime HART doesn't adhere to reliability targets */
       if (!warp.reliabilitiesMet()) {
         System.err.printf(
             "\n\tERROR: Not all flows meet the end-to-end "
                 + "reliability of %s under %s scheduling.\n",
-            String.valueOf(e2e), schedulerSelected.toString());
+            String.valueOf(e2e), sch.toString());
       } else if (verboseMode) {
         System.out.printf(
             "\n\tAll flows meet the end-to-end reliability " + "of %s under %s scheduling.\n",
-            String.valueOf(e2e), schedulerSelected.toString());
+            String.valueOf(e2e), sch.toString());
       }
     }
   }
@@ -316,15 +712,16 @@ public class Warp {
    * Checks for the flow deadlines. An error is printed if flows don't
    * meet the deadline target.
  * @param warp Refers to the main WARP interface.
+ * @param sch the scheduler that built warp
  */
-  private static void verifyDeadlines(WarpInterface warp) {
+  private static void verifyDeadlines(WarpInterface warp, ScheduleChoices sch) {
     if (!warp.deadlinesMet()) {
       System.err.printf("\n\tERROR: Not all flows meet their deadlines under %s scheduling.\n",
-          schedulerSelected.toString());
+          sch.toString());
       visualize(warp, SystemChoices.DEADLINE_REPORT);
     } else if (verboseMode) {
       System.out.printf("\n\tAll flows meet their deadlines under %s scheduling.\n",
-          schedulerSelected.toString());
+          sch.toString());
     }
   }
 
@@ -369,12 +766,21 @@ public class Warp {
     BooleanHolder all = new BooleanHolder();
     BooleanHolder latency = new BooleanHolder();
     BooleanHolder verbose = new BooleanHolder();
+    BooleanHolder rowKernel = new BooleanHolder();
+    IntHolder parallel = new IntHolder();
     StringHolder input = new StringHolder();
+    StringHolder batch = new StringHolder();
+    BooleanHolder daemon = new BooleanHolder();
+    IntHolder port = new IntHolder();
+    StringHolder sweepM = new StringHolder();
+    StringHolder sweepE2e = new StringHolder();
+    StringHolder sweepF = new StringHolder();
+    BooleanHolder sweepB = new BooleanHolder();
     StringHolder output = new StringHolder();
 
     // create the parser and specify the allowed options ...
     ArgParser parser = new ArgParser("java -jar warp.jar");
-    parser.addOption("-sch, --schedule %s {priority,rm,dm,rtHart,poset} #scheduler options",
+    parser.addOption("-sch, --schedule %s {priority,rm,dm,rtHart,poset,preemptive} #scheduler options",
         schedulerSelected);
     parser.addOption("-c, --channels %d {[1,16]} #number of wireless channels", channels);
     parser.addOption("-m %f {[0.5,1.0]} #minimum link quality in the system", m);
@@ -404,6 +810,31 @@ public class Warp {
     parser.addOption(
         "-v, --verbose %v #Echo input file name and parsed contents. Then for each flow instance: show maximum E2E latency and min/max communication cost for that instance of the flow",
         verbose);
+    parser.addOption(
+        "-rk, --rowKernel %v #compute reliabilities one timeslot at a time on a single core (vectorizable row kernel) instead of one flow at a time",
+        rowKernel);
+    parser.addOption(
+        "-p, --parallel %d {[1,64]} #with -a and no -sch, evaluate the scheduler choices on this many threads and print a comparison of the schedulers; with -b, process the workload files on this many threads (default: all processors)",
+        parallel);
+    parser.addOption(
+        "-b, --batch %s #<Directory>, glob or manifest of workload files to process in one run instead of -i; also writes a summary file (BatchSummary.csv) of the programs built",
+        batch);
+    parser.addOption(
+        "-d, --daemon %v #run as a server that answers JSON requests for programs, one per line, on stdin/stdout; -sch, -c, -m, -e and -f set the defaults of the requests",
+        daemon);
+    parser.addOption("--port %d {[1,65535]} #with -d, answer requests on this port of the loopback address instead of stdin/stdout",
+        port);
+    parser.addOption(
+        "-sm, --sweepM %s #comma separated values of m to sweep; sweeping any parameter prints and writes a grid (ParameterSweep.txt) of the minimum number of channels, up to -c, that meets every deadline under -sch",
+        sweepM);
+    parser.addOption("-se, --sweepE2e %s #comma separated values of e2e to sweep",
+        sweepE2e);
+    parser.addOption(
+        "-sf, --sweepFaults %s #comma separated numbers of faults per edge to sweep; 0 uses m and e2e",
+        sweepF);
+    parser.addOption(
+        "-sb, --sweepBounds %v #start each search of a sweep at the minimum of the points whose flows cost no more, and skip it when one of them has none; builds fewer programs, but assumes fewer transmissions never miss a deadline",
+        sweepB);
     // parser.addOption ("-d, -debug, --debug %v #Debug mode: base directory =
     // $HOME/Documents/WARP/", debug);
 
@@ -448,40 +879,58 @@ public class Warp {
     allRequested = all.value; // all out files requested flag
     latencyRequested = latency.value; // latency report requested flag
     verboseMode = verbose.value; // verbose mode flag (mainly for running in IDE)
+    ReliabilityAnalysis.setRowKernel(rowKernel.value); // reliability computation kernel
+    numThreads = parallel.value; // 0 when the scheduler choices are evaluated sequentially
     // debugMode = debug.value; // debug mode flag (mainly for running in IDE)
     inputFile = input.value; // input file specified
+    batchInput = batch.value; // batch of input files specified
+    serverRequested = daemon.value; // server mode requested flag
+    serverPort = port.value; // 0 when the server answers on stdin/stdout
+    sweepMs = sweepM.value; // values of m to sweep
+    sweepE2es = sweepE2e.value; // values of e2e to sweep
+    sweepFaults = sweepF.value; // numbers of faults to sweep
+    sweepBounds = sweepB.value; // sweep with cost bounds flag
     if (schedulerSelected.value != null) { // can't switch on a null value so check then switch
       schedulerRequested = true;
-      switch (schedulerSelected.value) {
-        case "priority":
-          Warp.schedulerSelected = ScheduleChoices.PRIORITY;
-          break;
-
-        case "rm":
-          Warp.schedulerSelected = ScheduleChoices.RM;
-          break;
-
-        case "dm":
-          Warp.schedulerSelected = ScheduleChoices.DM;
-          break;
-
-        case "rtHart":
-          Warp.schedulerSelected = ScheduleChoices.RTHART;
-          break;
-
-        case "poset":
-          Warp.schedulerSelected = ScheduleChoices.POSET_PRIORITY;
-          break;
-
-        default:
-          Warp.schedulerSelected = ScheduleChoices.PRIORITY;
-          break;
+      Warp.schedulerSelected = toScheduleChoice(schedulerSelected.value);
+      if (Warp.schedulerSelected == null) {
+        Warp.schedulerSelected = ScheduleChoices.PRIORITY;
       }
     } else { // null value when no scheduler specified; so use default
       Warp.schedulerSelected = DEFAULT_SCHEDULER;
     }
   }
 
+  /**
+   * Converts the name of a scheduler option (-sch) to its scheduler choice.
+ * @param name the scheduler option: priority, rm, dm, rtHart, poset or preemptive
+ * @return the scheduler choice, or null if name is not a scheduler option
+ */
+  static ScheduleChoices toScheduleChoice(String name) {
+    switch (name) {
+      case "priority":
+        return ScheduleChoices.PRIORITY;
+
+      case "rm":
+        return ScheduleChoices.RM;
+
+      case "dm":
+        return ScheduleChoices.DM;
+
+      case "rtHart":
+        return ScheduleChoices.RTHART;
+
+      case "poset":
+        return ScheduleChoices.POSET_PRIORITY;
+
+      case "preemptive":
+        return ScheduleChoices.CONNECTIVITY_POSET_PREEMPTIVE_PRIORITY;
+
+      default:
+        return null;
+    }
+  }
+
   /**
  * Prints all system configuration parameters. 
  */
@@ -507,8 +956,21 @@ public class Warp {
     } else {
       System.out.println("\tNo input file specified; will be requested when needed.");
     }
+    if (batchInput != null) {
+      System.out.println("\tbatch=" + batchInput);
+    }
+    System.out.println("\tdaemon flag=" + serverRequested);
+    if (serverPort > 0) {
+      System.out.println("\tport=" + serverPort);
+    }
+    if (sweepMs != null || sweepE2es != null || sweepFaults != null) {
+      System.out.println("\tsweep m=" + sweepMs + " e2e=" + sweepE2es + " faults=" + sweepFaults
+          + " bounds=" + sweepBounds);
+    }
     System.out.println("\toutputSubDirectory=" + outputSubDirectory);
     System.out.println("\tverbose flag=" + verboseMode);
+    System.out.println("\trowKernel flag=" + ReliabilityAnalysis.isRowKernel());
+    System.out.println("\tparallel threads=" + numThreads);
     // System.out.println ("\tdebug flag=" + debugMode);
   }
 
@@ -0,0 +1,424 @@
+package edu.uiowa.cs.warp;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import javax.json.Json;
+import javax.json.JsonException;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import edu.uiowa.cs.warp.SystemAttributes.ScheduleChoices;
+
+/**
+ * WarpServer is a long running WARP process that builds and analyzes programs on request, so
+ * that interactive tools pay for JVM start-up and ANTLR warm-up once instead of once per
+ * program. Requests and responses are JSON objects, one per line, read from stdin and written
+ * to stdout, or exchanged over connections to a port on the loopback address (see Warp -d).
+ *
+ * A request gives the contents of a workload input file and, optionally, the parameters to
+ * build its program with. Parameters that are left out take the server's defaults:
+ *
+ * <pre>
+ * {"id": 1, "workload": "Example {...}", "scheduler": "rm", "channels": 4, "m": 0.9, "e2e": 0.99, "faults": 0}
+ * </pre>
+ *
+ * The scheduler is a -sch option or the name of a ScheduleChoices value. The response repeats
+ * the id, and either has "ok": true with the program (the contents of its .dsl file), its
+ * latency report and whether it meets the deadlines and end-to-end reliability of the flows,
+ * or "ok": false with an error. {"op": "stats"} reports the use of the WorkLoad cache and
+ * {"op": "shutdown"} stops the server.
+ *
+ * Parsed WorkLoads are frozen and kept in a bounded, least-recently-used cache keyed by the
+ * SHA-256 hash of the workload text and the parameters its flows are built with (m, e2e and
+ * faults), so requests that only change the scheduler or the number of channels are not
+ * parsed again. Requests on different connections are served concurrently.
+ *
+ */
+public class WarpServer {
+
+	/**
+	 * The default number of WorkLoads kept in the cache.
+	 */
+	public static final int DEFAULT_CACHE_CAPACITY = 64;
+
+	private static final String SCHEDULE = "schedule";
+	private static final String STATS = "stats";
+	private static final String SHUTDOWN = "shutdown";
+
+	private final ScheduleChoices defaultScheduler;
+	private final Integer defaultChannels;
+	private final Double defaultM;
+	private final Double defaultE2e;
+	private final Integer defaultFaults;
+	private final WorkLoadCache cache;
+	private volatile boolean shutdown = false;
+	private volatile ServerSocket serverSocket = null;
+
+	/**
+	 * WorkLoad cache keys mapped to frozen WorkLoads, evicting the least recently used entry
+	 * when the capacity is exceeded. All access is synchronized on the cache.
+	 */
+	private static final class WorkLoadCache extends LinkedHashMap<String, WorkLoad> {
+		private static final long serialVersionUID = 1L;
+		private final int capacity;
+		private long hits = 0;
+		private long misses = 0;
+
+		private WorkLoadCache(int capacity) {
+			super(16, 0.75f, true); // access order, so the eldest entry is the least recently used
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, WorkLoad> eldest) {
+			return size() > capacity;
+		}
+	}
+
+	/**
+	 * Constructor creates a server with an empty WorkLoad cache.
+	 *
+	 * @param scheduler the scheduler of requests that don't give one
+	 * @param numChannels the number of channels of requests that don't give one
+	 * @param m the minimum packet reception rate of requests that don't give one
+	 * @param e2e the end-to-end reliability of requests that don't give one
+	 * @param numFaults the number of faults per edge of requests that don't give one
+	 * @param cacheCapacity the maximum number of WorkLoads kept in the cache (at least 1)
+	 */
+	WarpServer(ScheduleChoices scheduler, Integer numChannels, Double m, Double e2e,
+			Integer numFaults, int cacheCapacity) {
+		this.defaultScheduler = scheduler;
+		this.defaultChannels = numChannels;
+		this.defaultM = m;
+		this.defaultE2e = e2e;
+		this.defaultFaults = numFaults;
+		this.cache = new WorkLoadCache(Math.max(1, cacheCapacity));
+	}
+
+	/**
+	 * Answers requests read from stdin on stdout until stdin is closed or the server is shut
+	 * down. While the server runs, what WARP prints to stdout is printed to stderr instead, so
+	 * that stdout only has responses.
+	 *
+	 * @throws IOException if stdin can't be read or stdout can't be written
+	 */
+	public void serveStandardStreams() throws IOException {
+		PrintStream stdout = System.out;
+		System.setOut(System.err);
+		try {
+			var in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+			var out = new BufferedWriter(new OutputStreamWriter(stdout, StandardCharsets.UTF_8));
+			serve(in, out);
+		} finally {
+			System.setOut(stdout);
+		}
+	}
+
+	/**
+	 * Answers requests on connections to port on the loopback address until the server is shut
+	 * down. The address the server listens on is printed to stderr.
+	 *
+	 * @param port the port to listen on; 0 picks a free port
+	 * @throws IOException if the port can't be listened on
+	 */
+	public void serve(int port) throws IOException {
+		try (var serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress())) {
+			System.err.printf("WARP server listening on %s\n", serverSocket.getLocalSocketAddress());
+			serve(serverSocket);
+		}
+	}
+
+	/**
+	 * Answers requests on the connections accepted by serverSocket until the server is shut
+	 * down, serving each connection on a thread of its own.
+	 *
+	 * @param serverSocket the socket to accept connections on
+	 * @throws IOException if a connection can't be accepted
+	 */
+	public void serve(ServerSocket serverSocket) throws IOException {
+		this.serverSocket = serverSocket;
+		var connections = Executors.newCachedThreadPool();
+		try {
+			while (!shutdown) {
+				Socket socket;
+				try {
+					socket = serverSocket.accept();
+				} catch (SocketException e) {
+					if (shutdown) { // the socket was closed to stop accepting connections
+						break;
+					}
+					throw e;
+				}
+				connections.execute(() -> serve(socket));
+			}
+		} finally {
+			connections.shutdown(); // connections that are open are served until they close
+		}
+	}
+
+	private void serve(Socket socket) {
+		try (socket;
+				var in = new BufferedReader(
+						new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+				var out = new BufferedWriter(
+						new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+			serve(in, out);
+		} catch (IOException e) {
+			System.err.println("Error on serving connection " + socket + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Answers the requests read from in, one per line, writing a response line to out for
+	 * each, until in ends or the server is shut down. Blank lines are skipped.
+	 *
+	 * @param in the requests
+	 * @param out where the responses are written
+	 * @throws IOException if in can't be read or out can't be written
+	 */
+	public void serve(BufferedReader in, Writer out) throws IOException {
+		String line;
+		while (!shutdown && (line = in.readLine()) != null) {
+			if (line.isBlank()) {
+				continue;
+			}
+			out.write(handle(line));
+			out.write("\n");
+			out.flush();
+		}
+	}
+
+	/**
+	 * Answers one request.
+	 *
+	 * @param request a JSON object
+	 * @return the response, a JSON object on one line
+	 */
+	public String handle(String request) {
+		JsonObject json;
+		try (var reader = Json.createReader(new StringReader(request))) {
+			json = reader.readObject();
+		} catch (JsonException e) {
+			return toString(error(JsonValue.NULL, "request is not a JSON object: " + e.getMessage()));
+		}
+		var id = json.getOrDefault("id", JsonValue.NULL);
+		var response = Json.createObjectBuilder().add("id", id).add("ok", true);
+		try {
+			var op = json.getString("op", SCHEDULE);
+			switch (op) {
+				case SCHEDULE:
+					schedule(json, response);
+					break;
+
+				case STATS:
+					stats(response);
+					break;
+
+				case SHUTDOWN:
+					shutdown();
+					break;
+
+				default:
+					throw new IllegalArgumentException("unknown op " + op);
+			}
+		} catch (RuntimeException e) { // a bad request or a failed scheduler; keep serving
+			response = error(id, (e.getMessage() != null) ? e.getMessage() : e.toString());
+		}
+		return toString(response);
+	}
+
+	/**
+	 * Builds, verifies and analyzes the program a schedule request asks for.
+	 */
+	private void schedule(JsonObject request, JsonObjectBuilder response) {
+		if (!(request.get("workload") instanceof JsonString)) {
+			throw new IllegalArgumentException("workload must be the text of a workload file");
+		}
+		var text = request.getString("workload");
+		var scheduler = scheduleChoice(request);
+		var channels = intParameter(request, "channels", defaultChannels, 1, 16);
+		var faults = intParameter(request, "faults", defaultFaults, 0, 10);
+		var m = doubleParameter(request, "m", defaultM, 0.5, 1.0);
+		var e2e = doubleParameter(request, "e2e", defaultE2e, 0.5, 1.0);
+
+		var key = cacheKey(text, faults, m, e2e);
+		WorkLoad workLoad;
+		synchronized (cache) {
+			workLoad = cache.get(key);
+			if (workLoad != null) {
+				cache.hits++;
+			} else {
+				cache.misses++;
+			}
+		}
+		var cached = (workLoad != null);
+		if (!cached) { // parse outside the lock so other requests can use the cache meanwhile
+			workLoad = new WorkLoad(faults, m, e2e, key + ".txt", text);
+			if (workLoad.getFlowNames().length == 0) {
+				throw new IllegalArgumentException("workload has no flows");
+			}
+			workLoad.freeze(); // requests only read the WorkLoad, so they can share it
+			synchronized (cache) {
+				cache.put(key, workLoad);
+			}
+		}
+
+		var warp = SystemFactory.create(workLoad, channels, scheduler);
+		var program = warp.toProgram();
+		response.add("cached", cached)
+				.add("workload", workLoad.getName())
+				.add("scheduler", warp.getSchedulerName())
+				.add("channels", channels)
+				.add("length", program.getSchedule().size())
+				.add("deadlinesMet", warp.deadlinesMet())
+				.add("reliabilitiesMet", warp.reliabilitiesMet())
+				.add("program", new ProgramVisualization(warp).fileVisualization().toString())
+				.add("latencyReport", warp.toLatencyAnalysis().latencyReport().toString())
+				.add("deadlineMisses", program.deadlineMisses().toString());
+	}
+
+	private void stats(JsonObjectBuilder response) {
+		synchronized (cache) {
+			response.add("cacheSize", cache.size())
+					.add("cacheCapacity", cache.capacity)
+					.add("cacheHits", cache.hits)
+					.add("cacheMisses", cache.misses);
+		}
+	}
+
+	/**
+	 * Stop serving: no more requests are read, and no more connections are accepted.
+	 */
+	public void shutdown() {
+		shutdown = true;
+		var socket = serverSocket;
+		if (socket != null) {
+			try {
+				socket.close(); // wakes up serve(serverSocket)
+			} catch (IOException e) {
+				System.err.println("Error on closing the server socket: " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * @return the number of requests whose WorkLoad was in the cache
+	 */
+	public long getCacheHits() {
+		synchronized (cache) {
+			return cache.hits;
+		}
+	}
+
+	/**
+	 * @return the number of requests whose WorkLoad had to be parsed
+	 */
+	public long getCacheMisses() {
+		synchronized (cache) {
+			return cache.misses;
+		}
+	}
+
+	/**
+	 * @return the number of WorkLoads in the cache
+	 */
+	public int getCacheSize() {
+		synchronized (cache) {
+			return cache.size();
+		}
+	}
+
+	private ScheduleChoices scheduleChoice(JsonObject request) {
+		if (!request.containsKey("scheduler")) {
+			return defaultScheduler;
+		}
+		if (!(request.get("scheduler") instanceof JsonString)) {
+			throw new IllegalArgumentException("scheduler must be a scheduler name");
+		}
+		var name = request.getString("scheduler");
+		var choice = Warp.toScheduleChoice(name);
+		if (choice == null) {
+			try {
+				choice = ScheduleChoices.valueOf(name);
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException("unknown scheduler " + name);
+			}
+		}
+		return choice;
+	}
+
+	private Integer intParameter(JsonObject request, String name, Integer defaultValue, int min,
+			int max) {
+		if (!request.containsKey(name)) {
+			return defaultValue;
+		}
+		var value = request.get(name);
+		if (!(value instanceof JsonNumber) || !((JsonNumber) value).isIntegral()
+				|| ((JsonNumber) value).doubleValue() < min
+				|| ((JsonNumber) value).doubleValue() > max) {
+			throw new IllegalArgumentException(
+					String.format("%s must be an integer in [%d,%d]", name, min, max));
+		}
+		return ((JsonNumber) value).intValue();
+	}
+
+	private Double doubleParameter(JsonObject request, String name, Double defaultValue,
+			double min, double max) {
+		if (!request.containsKey(name)) {
+			return defaultValue;
+		}
+		var value = request.get(name);
+		if (!(value instanceof JsonNumber) || ((JsonNumber) value).doubleValue() < min
+				|| ((JsonNumber) value).doubleValue() > max) {
+			throw new IllegalArgumentException(
+					String.format("%s must be a number in [%s,%s]", name, min, max));
+		}
+		return ((JsonNumber) value).doubleValue();
+	}
+
+	/* the SHA-256 hash of the workload text, followed by the parameters its flows are built with */
+	private static String cacheKey(String text, Integer faults, Double m, Double e2e) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e); // every Java platform implements SHA-256
+		}
+		var key = new StringBuilder();
+		for (byte b : digest.digest(text.getBytes(StandardCharsets.UTF_8))) {
+			key.append(String.format("%02x", b));
+		}
+		return key.append(String.format("-%dF-%sM-%sE2E", faults, m, e2e)).toString();
+	}
+
+	private static JsonObjectBuilder error(JsonValue id, String message) {
+		return Json.createObjectBuilder().add("id", id).add("ok", false).add("error", message);
+	}
+
+	private static String toString(JsonObjectBuilder response) {
+		var out = new StringWriter();
+		try (var writer = Json.createWriter(out)) {
+			writer.writeObject(response.build());
+		}
+		return out.toString();
+	}
+}
@@ -0,0 +1,148 @@
+package edu.uiowa.cs.warp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.json.Json;
+import javax.json.JsonObject;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.uiowa.cs.warp.SystemAttributes.ScheduleChoices;
+
+class WarpServerTest {
+	private WarpServer server;
+	private String example;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		//The server's defaults are Warp's defaults. Each request sends the
+		//contents of Example.txt, as an interactive tool would.
+		server = new WarpServer(ScheduleChoices.PRIORITY, 16, 0.9, 0.99, 0, 2);
+		example = Files.readString(Path.of("Example.txt"));
+	}
+
+	@Test
+	void testScheduleMatchesProgramOfFile() {
+		var response = send("{\"id\": 1, \"scheduler\": \"rm\", \"channels\": 2, \"workload\": "
+				+ quote(example) + "}");
+		assertEquals(1, response.getInt("id"));
+		assertTrue(response.getBoolean("ok"));
+		assertFalse(response.getBoolean("cached"));
+
+		var warp = SystemFactory.create(new WorkLoad(0, 0.9, 0.99, "Example.txt"), 2,
+				ScheduleChoices.RM);
+		assertEquals(warp.getSchedulerName(), response.getString("scheduler"));
+		assertEquals(new ProgramVisualization(warp).fileVisualization().toString(),
+				response.getString("program"));
+		assertEquals(warp.toLatencyAnalysis().latencyReport().toString(),
+				response.getString("latencyReport"));
+		assertEquals(warp.deadlinesMet(), response.getBoolean("deadlinesMet"));
+		assertEquals(warp.reliabilitiesMet(), response.getBoolean("reliabilitiesMet"));
+	}
+
+	@Test
+	void testWorkLoadIsCachedByContentAndParameters() {
+		send("{\"workload\": " + quote(example) + "}");
+		//Another scheduler and number of channels reuse the parsed WorkLoad...
+		var response = send("{\"workload\": " + quote(example)
+				+ ", \"scheduler\": \"WARP_POSET_DM\", \"channels\": 4}");
+		assertTrue(response.getBoolean("cached"));
+		assertEquals(1L, server.getCacheHits());
+		//...but the flows of another m are built again
+		response = send("{\"workload\": " + quote(example) + ", \"m\": 0.8}");
+		assertFalse(response.getBoolean("cached"));
+		assertEquals(2, server.getCacheSize());
+		//The least recently used WorkLoad is evicted beyond the capacity of 2
+		send("{\"workload\": " + quote(example) + ", \"e2e\": 0.9}");
+		assertEquals(2, server.getCacheSize());
+		assertEquals(3L, server.getCacheMisses());
+	}
+
+	@Test
+	void testBadRequestsAreAnsweredWithErrors() {
+		var response = send("{\"id\": \"a\", \"workload\": " + quote(example)
+				+ ", \"scheduler\": \"none\"}");
+		assertEquals("a", response.getString("id"));
+		assertFalse(response.getBoolean("ok"));
+		assertEquals("unknown scheduler none", response.getString("error"));
+		assertFalse(send("{\"workload\": " + quote(example) + ", \"channels\": 0}")
+				.getBoolean("ok"));
+		assertFalse(send("{\"scheduler\": \"rm\"}").getBoolean("ok"));
+		assertFalse(send("not json").getBoolean("ok"));
+		assertTrue(send("{\"op\": \"stats\"}").getBoolean("ok"));
+	}
+
+	@Test
+	void testServeAnswersEachLineUntilShutdown() throws Exception {
+		var requests = "{\"id\": 1, \"workload\": " + quote(example) + "}\n\n"
+				+ "{\"id\": 2, \"op\": \"shutdown\"}\n"
+				+ "{\"id\": 3, \"op\": \"stats\"}\n";
+		var out = new StringWriter();
+		server.serve(new BufferedReader(new StringReader(requests)), out);
+		var responses = out.toString().split("\n");
+		assertEquals(2, responses.length);
+		assertEquals(1, parse(responses[0]).getInt("id"));
+		assertEquals(2, parse(responses[1]).getInt("id"));
+	}
+
+	@Test
+	void testServeOnLoopbackSocket() throws Exception {
+		var serverSocket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+		var serverError = new AtomicReference<Exception>();
+		var serverThread = new Thread(() -> {
+			try {
+				server.serve(serverSocket);
+			} catch (Exception e) {
+				serverError.set(e);
+			}
+		});
+		serverThread.start();
+		try (var client = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+				var in = new BufferedReader(
+						new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+				var out = new BufferedWriter(
+						new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8))) {
+			out.write("{\"id\": 1, \"scheduler\": \"poset\", \"workload\": " + quote(example) + "}\n");
+			out.flush();
+			var response = parse(in.readLine());
+			assertTrue(response.getBoolean("ok"));
+			assertEquals("Poset", response.getString("scheduler"));
+			out.write("{\"op\": \"shutdown\"}\n");
+			out.flush();
+			assertTrue(parse(in.readLine()).getBoolean("ok"));
+		}
+		serverThread.join(10000);
+		assertFalse(serverThread.isAlive());
+		assertNull(serverError.get());
+		assertTrue(serverSocket.isClosed());
+	}
+
+	private JsonObject send(String request) {
+		return parse(server.handle(request));
+	}
+
+	private JsonObject parse(String response) {
+		assertFalse(response.contains("\n")); // one response per line
+		try (var reader = Json.createReader(new StringReader(response))) {
+			return reader.readObject();
+		}
+	}
+
+	private String quote(String text) {
+		return Json.createArrayBuilder().add(text).build().toString().replaceAll("^\\[|\\]$", "");
+	}
+}
@@ -16,6 +16,7 @@ public class WarpSystem implements WarpInterface {
   private ReliabilityAnalysis ra;
   private LatencyAnalysis la;
   private ChannelAnalysis ca;
+  private Boolean reliabilitiesMet; // null until the program's reliabilities are verified
   private Integer numChannels;
   private Boolean verboseMode = false;
   private Boolean latencyRequested = false;
@@ -65,10 +66,13 @@ public class WarpSystem implements WarpInterface {
 
   @Override
   public Boolean reliabilitiesMet() {
-    if (ra == null) {
-      ra = new ReliabilityAnalysis(program);
+    if (reliabilitiesMet == null) { // the program doesn't change, so verify it once
+      if (ra == null) {
+        ra = new ReliabilityAnalysis(program);
+      }
+      reliabilitiesMet = ra.verifyReliabilities();
     }
-    return ra.verifyReliabilities();
+    return reliabilitiesMet;
   }
 
   @Override
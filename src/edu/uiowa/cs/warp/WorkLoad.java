@@ -102,6 +102,31 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
    */
   private ArrayList<String> flowNamesInPriorityOrder = new ArrayList<>();
   
+  /**
+   * Dense int ids of the flows, assigned in the order the flows were added.
+   */
+  private SymbolTable flowSymbols;
+  
+  /**
+   * Dense int ids of the nodes, assigned in the order the nodes were first seen.
+   */
+  private SymbolTable nodeSymbols;
+  
+  /**
+   * The flows indexed by id.
+   */
+  private ArrayList<Flow> flowsById;
+  
+  /**
+   * The nodes indexed by id.
+   */
+  private ArrayList<Node> nodesById;
+  
+  /**
+   * Whether the WorkLoad is frozen: a frozen WorkLoad can no longer be changed.
+   */
+  private boolean frozen = false;
+  
   // private FileManager fm;
 
   /**
@@ -149,6 +174,82 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
     WorkLoadListener.buildNodesAndFlows(this);
   }
 
+  /**
+   * Creates a new WorkLoad from the contents of an input file, rather than the file, so that
+   * workloads can be built from text that was never saved (see WarpServer).
+   * 
+   * @param numFaults the number of faults per edge to use for the Workload, integer >= 0
+   * @param m the minimum packet reception rate to use for the Workload, between 0.0 and 1.0
+   * @param e2e the end to end communication reliability for the Workload, between 0.0 and 1.0
+   * @param inputFileName the name the output files of the WorkLoad are based on
+   * @param inputGraph the contents of a workload input file
+   */
+  WorkLoad(Integer numFaults, Double m, Double e2e, String inputFileName, String inputGraph) {
+    super(inputFileName, inputGraph);
+    setDefaultParameters();
+    this.numFaults = numFaults;
+    minPacketReceptionRate = m;
+    this.e2e = e2e;
+    WorkLoadListener.buildNodesAndFlows(this);
+  }
+
+  /**
+   * Creates a copy of workLoad with other reliability parameters. The flows and nodes of
+   * workLoad are added again in the order the listener added them, and only the transmission
+   * costs of the flows are finalized with the new parameters, so the input graph is not parsed
+   * again (see ParameterSweep). The copy is not frozen.
+   *
+   * @param workLoad the WorkLoad to copy
+   * @param numFaults the number of faults per edge to use for the Workload, integer >= 0
+   * @param m the minimum packet reception rate to use for the Workload, between 0.0 and 1.0
+   * @param e2e the end to end communication reliability for the Workload, between 0.0 and 1.0
+   */
+  WorkLoad(WorkLoad workLoad, Integer numFaults, Double m, Double e2e) {
+    super(workLoad);
+    setDefaultParameters();
+    this.numFaults = numFaults;
+    minPacketReceptionRate = m;
+    this.e2e = e2e;
+    setName(workLoad.getName());
+    for (String flowName : workLoad.getFlowNames()) {
+      var flowId = addFlow(flowName);
+      setFlowPriority(flowId, workLoad.getFlowPriority(flowName));
+      setFlowPeriod(flowId, workLoad.getFlowPeriod(flowName));
+      setFlowDeadline(flowId, workLoad.getFlowDeadline(flowName));
+      setFlowPhase(flowId, workLoad.getFlowPhase(flowName));
+      for (String nodeName : workLoad.getNodesInFlow(flowName)) {
+        addNodeToFlow(flowId, nodeName);
+      }
+      finalizeCurrentFlow(flowName);
+    }
+  }
+
+  /**
+   * Freezes this WorkLoad, so that the methods that would change it throw an
+   * IllegalStateException. Schedulers only read their WorkLoad, keeping the flow order, node
+   * channels, edges and release times they need in their own objects, so any number of them can
+   * build programs concurrently from one frozen WorkLoad.
+   *
+   * @return this WorkLoad
+   */
+  public WorkLoad freeze() {
+    frozen = true;
+    return this;
+  }
+
+  /**
+   * @return true if this WorkLoad is frozen
+   */
+  public boolean isFrozen() {
+    return frozen;
+  }
+
+  private void checkNotFrozen() {
+    if (frozen) {
+      throw new IllegalStateException("WorkLoad " + name + " is frozen");
+    }
+  }
+
   private void setDefaultParameters() {
     intForNodeNames = true; // default is that node names are all alpha names
     intForFlowNames = true; // default is that node names are all alpha names
@@ -157,6 +258,10 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
     flowNamesInOriginalOrder = new ArrayList<>(); // array to hold names of flows to preserve their
                                                   // order
     flowNamesInPriorityOrder = new ArrayList<>();
+    flowSymbols = new SymbolTable();
+    nodeSymbols = new SymbolTable();
+    flowsById = new ArrayList<>();
+    nodesById = new ArrayList<>();
     numFaults = DEFAULT_TX_NUM;
   }
 
@@ -234,6 +339,7 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
    * @param minPacketReceptionRate the minPacketReceptionRate to set
    */
   public void setMinPacketReceptionRate(Double minPacketReceptionRate) {
+    checkNotFrozen();
     this.minPacketReceptionRate = minPacketReceptionRate;
   }
 
@@ -257,6 +363,7 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
    * @param e2e the e2e to set
    */
   public void setE2e(Double e2e) {
+    checkNotFrozen();
     this.e2e = e2e;
   }
 
@@ -264,6 +371,7 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
    * @param intForNodeNames the intForNodeNames to set
    */
   public void setIntForNodeNames(Boolean intForNodeNames) {
+    checkNotFrozen();
     this.intForNodeNames = intForNodeNames;
   }
 
@@ -271,6 +379,7 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
    * @param intForFlowNames the intForFlowNames to set
    */
   public void setIntForFlowNames(Boolean intForFlowNames) {
+    checkNotFrozen();
     this.intForFlowNames = intForFlowNames;
   }
 
@@ -278,20 +387,25 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
    * @param flows the flows to set
    */
   public void setFlows(FlowMap flows) {
+    checkNotFrozen();
     this.flows = flows;
+    assignIds();
   }
 
   /**
    * @param nodes the nodes to set
    */
   public void setNodes(NodeMap nodes) {
+    checkNotFrozen();
     this.nodes = nodes;
+    assignIds();
   }
 
   /**
    * @param name the name to set
    */
   public void setName(String name) {
+    checkNotFrozen();
     this.name = name;
   }
 
@@ -299,6 +413,7 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
    * @param flowNamesInOriginalOrder the flowNamesInOriginalOrder to set
    */
   public void setFlowNamesInOriginalOrder(ArrayList<String> flowNamesInOriginalOrder) {
+    checkNotFrozen();
     this.flowNamesInOriginalOrder = flowNamesInOriginalOrder;
   }
 
@@ -306,6 +421,7 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
    * @param flowNamesInPriorityOrder the flowNamesInPriorityOrder to set
    */
   public void setFlowNamesInPriorityOrder(ArrayList<String> flowNamesInPriorityOrder) {
+    checkNotFrozen();
     this.flowNamesInPriorityOrder = flowNamesInPriorityOrder;
   }
 
@@ -314,6 +430,7 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
    * @param channel the channel to set
    */
   public void setNodeChannel(String name, Integer channel) {
+    checkNotFrozen();
     var node = nodes.get(name); // get the node object
     node.setChannel(channel);
     nodes.put(name, node); // update the nodes map with the updated object
@@ -327,6 +444,23 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
     return node.getChannel();
   }
 
+  /**
+   * @param nodeId the id of the node whose channel is to be set
+   * @param channel the channel to set
+   */
+  public void setNodeChannel(int nodeId, int channel) {
+    checkNotFrozen();
+    nodesById.get(nodeId).setChannel(channel);
+  }
+
+  /**
+   * @param nodeId the id of the node
+   * @return the node channel
+   */
+  public int getNodeChannel(int nodeId) {
+    return nodesById.get(nodeId).getChannel();
+  }
+
   /**
    * Adds a new flow node to the Flows dictionary. Only name, priority, and index are changed from
    * the default values. Priority is set to the number of flows already added (index), 0 for first
@@ -334,8 +468,10 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
    * Index is set to the same value to preserve that order as a secondary sort key.
    * 
    * @param flowName the name of the flow to be added
+   * @return the id of the flow; a flow that replaces one with the same name keeps its id
    */
-  public void addFlow(String flowName) {
+  public int addFlow(String flowName) {
+    checkNotFrozen();
     /*
      * add a new flow node to the Flows dictionary. Only name, priority, and index are changed from
      * default values priority is set to the number of flows already added (index), 0 for first flow
@@ -352,11 +488,19 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
     var index = flows.size();
     var flowNode = new Flow(flowName, index, index);
     flows.put(flowName, flowNode);
+    var id = flowSymbols.intern(flowName);
+    flowNode.id = id;
+    if (id == flowsById.size()) {
+      flowsById.add(flowNode);
+    } else {
+      flowsById.set(id, flowNode); // replaced an existing flow
+    }
     if (!Utilities.isInteger(flowName) && intForFlowNames) {
       intForFlowNames = false; // set false because name not is a number; && above makes sure we
                                // only set it once
     }
     flowNamesInOriginalOrder.add(flowName);
+    return id;
   }
 
   public Boolean isIntForNodeNames() { // returns true if all node names are ints
@@ -377,6 +521,7 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
    * @param nodeName the name of the node to be added
    */
   public void addNodeToFlow(String flowName, String nodeName) {
+    checkNotFrozen();
     if (!Utilities.isInteger(nodeName) && intForNodeNames) {
       /* set false because name not is a number; && above makes sure we only set it once */
       intForNodeNames = false;
@@ -387,6 +532,8 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
       var index = nodes.size(); // nodeIndex will be the order added
       var graphNode = new Node(nodeName, DEFAULT_PRIORITY, index); // create a new graph node
       nodes.put(nodeName, graphNode); // add it to the map of nodes
+      graphNode.setId(nodeSymbols.intern(nodeName));
+      nodesById.add(graphNode);
     }
     /*
      * Node is now created and in the nodes map Next we need to get the current flow and add this
@@ -395,10 +542,22 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
     var flowNode = getFlow(flowName);
     var graphNode = new Node(nodeName, flowNode.nodes.size(), DEFAULT_INDEX);
     /* the priority is the node's index in the flow, which is the current array size */
+    graphNode.setId(nodeSymbols.getId(nodeName)); // same id as the graph node
     flowNode.addNode(graphNode);
     flowNode.linkTxAndTotalCost.add(DEFAULT_TX_NUM);
   }
 
+  /**
+   * Adds the given node to the flow with id flowId.
+   * 
+   * @param flowId the id of the flow to add the node to
+   * @param nodeName the name of the node to be added
+   * @see #addNodeToFlow(String, String)
+   */
+  public void addNodeToFlow(int flowId, String nodeName) {
+    addNodeToFlow(flowSymbols.getName(flowId), nodeName);
+  }
+
 
   /**
    * Finds the priority of the given node within the given flow.
@@ -422,25 +581,49 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
   }
 
   public void setFlowPriority(String flowName, Integer priority) {
+    checkNotFrozen();
     var flowNode = getFlow(flowName);
     flowNode.setPriority(priority);
   }
 
   public void setFlowPeriod(String flowName, Integer period) {
+    checkNotFrozen();
     var flowNode = getFlow(flowName);
     flowNode.setPeriod(period);
   }
 
   public void setFlowDeadline(String flowName, Integer deadline) {
+    checkNotFrozen();
     var flowNode = getFlow(flowName);
     flowNode.setDeadline(deadline);
   }
 
   public void setFlowPhase(String flowName, Integer phase) {
+    checkNotFrozen();
     var flowNode = getFlow(flowName);
     flowNode.setPhase(phase);
   }
 
+  public void setFlowPriority(int flowId, int priority) {
+    checkNotFrozen();
+    flowsById.get(flowId).setPriority(priority);
+  }
+
+  public void setFlowPeriod(int flowId, int period) {
+    checkNotFrozen();
+    flowsById.get(flowId).setPeriod(period);
+  }
+
+  public void setFlowDeadline(int flowId, int deadline) {
+    checkNotFrozen();
+    flowsById.get(flowId).setDeadline(deadline);
+  }
+
+  public void setFlowPhase(int flowId, int phase) {
+    checkNotFrozen();
+    flowsById.get(flowId).setPhase(phase);
+  }
+
   public Integer getFlowIndex(String flowName) {
     var flowNode = getFlow(flowName);
     return flowNode.index;
@@ -482,6 +665,38 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
     return flowNode.getPhase();
   }
 
+  /**
+   * @param flowId the id of the flow
+   * @return the priority of the flow
+   */
+  public int getFlowPriority(int flowId) {
+    return flowsById.get(flowId).getPriority();
+  }
+
+  /**
+   * @param flowId the id of the flow
+   * @return the period of the flow
+   */
+  public int getFlowPeriod(int flowId) {
+    return flowsById.get(flowId).getPeriod();
+  }
+
+  /**
+   * @param flowId the id of the flow
+   * @return the deadline of the flow
+   */
+  public int getFlowDeadline(int flowId) {
+    return flowsById.get(flowId).getDeadline();
+  }
+
+  /**
+   * @param flowId the id of the flow
+   * @return the phase of the flow
+   */
+  public int getFlowPhase(int flowId) {
+    return flowsById.get(flowId).getPhase();
+  }
+
   /**
    * @param flowName the flow to retrieve transmission attempts from
    * @return the number of transmission attempts for any one link in the flow
@@ -496,6 +711,14 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
    * index.
    */
   public void setFlowsInPriorityOrder() {
+    checkNotFrozen();
+    flowNamesInPriorityOrder = getFlowNamesSortedByPriority();
+  }
+
+  /**
+   * @return a new List of all flow names sorted first by priority, and then by index
+   */
+  public ArrayList<String> getFlowNamesSortedByPriority() {
     // create a list of Flow objects from the FlowMap using the stream interface.
     List<Flow> unsortedFlows = flows.values().stream().collect(Collectors.toList());
     // Now sort by a secondary key, which is index in this case
@@ -504,10 +727,10 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
     // Now sort by primary key, which is priority in this case
     List<Flow> sortedFlows = sortedByIndex.stream().sorted(Comparator.comparing(Flow::getPriority))
         .collect(Collectors.toList());
-    // Finally, create a new flowNamesInPriorityOrder that contains the flow names in the requested
-    // order
-    flowNamesInPriorityOrder = new ArrayList<>();
-    sortedFlows.forEach((node) -> flowNamesInPriorityOrder.add(node.getName()));
+    // Finally, create a new list that contains the flow names in the requested order
+    var flowNames = new ArrayList<String>();
+    sortedFlows.forEach((node) -> flowNames.add(node.getName()));
+    return flowNames;
   }
 
   /**
@@ -515,6 +738,14 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
    * priority.
    */
   public void setFlowsInDMorder() {
+    checkNotFrozen();
+    flowNamesInPriorityOrder = getFlowNamesSortedByDeadline();
+  }
+
+  /**
+   * @return a new List of all flow names sorted first by deadline, and then by priority
+   */
+  public ArrayList<String> getFlowNamesSortedByDeadline() {
     /* create a list of Flow objects from the FlowMap using the stream interface. */
     List<Flow> unsortedFlows = flows.values().stream().collect(Collectors.toList());
     /* Now sort by a secondary key, which is priority in this case */
@@ -524,11 +755,11 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
     List<Flow> sortedFlows = sortedByPriority.stream()
         .sorted(Comparator.comparing(Flow::getDeadline)).collect(Collectors.toList());
     /*
-     * Finally, create a new flowNamesInPriorityOrder that contains the flow names in the requested
-     * order
+     * Finally, create a new list that contains the flow names in the requested order
      */
-    flowNamesInPriorityOrder = new ArrayList<>();
-    sortedFlows.forEach((node) -> flowNamesInPriorityOrder.add(node.getName()));
+    var flowNames = new ArrayList<String>();
+    sortedFlows.forEach((node) -> flowNames.add(node.getName()));
+    return flowNames;
   }
 
   /**
@@ -536,6 +767,14 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
    * priority.
    */
   public void setFlowsInRMorder() {
+    checkNotFrozen();
+    flowNamesInPriorityOrder = getFlowNamesSortedByPeriod();
+  }
+
+  /**
+   * @return a new List of all flow names sorted first by period, and then by priority
+   */
+  public ArrayList<String> getFlowNamesSortedByPeriod() {
     // create a list of Flow objects from the FlowMap using the stream interface.
     List<Flow> unsortedFlows = flows.values().stream().collect(Collectors.toList());
     // Now sort by a secondary key, which is priority in this case
@@ -544,10 +783,10 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
     // Now sort by primary key, which is period in this case
     List<Flow> sortedFlows = sortedByPriority.stream().sorted(Comparator.comparing(Flow::getPeriod))
         .collect(Collectors.toList());
-    // Finally, create a new flowNamesInPriorityOrder that contains the flow names in the requested
-    // order
-    flowNamesInPriorityOrder = new ArrayList<>();
-    sortedFlows.forEach((node) -> flowNamesInPriorityOrder.add(node.getName()));
+    // Finally, create a new list that contains the flow names in the requested order
+    var flowNames = new ArrayList<String>();
+    sortedFlows.forEach((node) -> flowNames.add(node.getName()));
+    return flowNames;
   }
 
   public void setFlowsInRealTimeHARTorder() {
@@ -555,6 +794,7 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
   }
 
   public void finalizeCurrentFlow(String flowName) {
+    checkNotFrozen();
     if (numFaults > 0) {
       finalizeFlowWithFixedFaultTolerance(flowName);
     } else {
@@ -562,18 +802,30 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
     }
   }
 
+  /**
+   * Computes the next release time of the flow at or after currentTime. The flow is not changed,
+   * so concurrent schedulers can share this WorkLoad.
+   *
+   * @param flowName the name of the flow
+   * @param currentTime the time to release the flow at or after
+   * @return the next release time of the flow
+   */
   public Integer nextReleaseTime(String flowName, Integer currentTime) {
     var flow = getFlow(flowName);
-    flow.setLastUpdateTime(currentTime);
-    flow.setNextReleaseTime(currentTime);
-    return flow.getReleaseTime(); // next release Time at or after currentTime
+    return flow.nextReleaseTime(currentTime); // next release Time at or after currentTime
   }
 
+  /**
+   * Computes the absolute deadline of the next release of the flow at or after currentTime. The
+   * flow is not changed, so concurrent schedulers can share this WorkLoad.
+   *
+   * @param flowName the name of the flow
+   * @param currentTime the time to release the flow at or after
+   * @return the absolute deadline of the next release of the flow
+   */
   public Integer nextAbsoluteDeadline(String flowName, Integer currentTime) {
     var flow = getFlow(flowName);
-    flow.setLastUpdateTime(currentTime);
-    flow.setNextReleaseTime(currentTime);
-    return flow.getReleaseTime() + flow.getDeadline(); // next deadline after currentTime
+    return flow.nextReleaseTime(currentTime) + flow.getDeadline(); // next deadline after currentTime
   }
 
   private void finalizeFlowWithE2eParameters(String flowName) {
@@ -663,6 +915,32 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
     return nodeNames;
   }
 
+  /*
+   * Reassign the flow and node ids after the flow or node map is replaced. Ids follow the index
+   * of each flow and node, which is the order they were read from the graph file.
+   */
+  private void assignIds() {
+    flowSymbols = new SymbolTable();
+    nodeSymbols = new SymbolTable();
+    flowsById = new ArrayList<>();
+    nodesById = new ArrayList<>();
+    var nodesInOrder = new ArrayList<Node>(nodes.values());
+    nodesInOrder.sort(Comparator.comparing(Node::getIndex));
+    for (Node node : nodesInOrder) {
+      node.setId(nodeSymbols.intern(node.getName()));
+      nodesById.add(node);
+    }
+    var flowsInOrder = new ArrayList<Flow>(flows.values());
+    flowsInOrder.sort(Comparator.comparing(Flow::getIndex));
+    for (Flow flow : flowsInOrder) {
+      flow.id = flowSymbols.intern(flow.getName());
+      flowsById.add(flow);
+      for (Node node : flow.nodes) {
+        node.setId(nodeSymbols.getId(node.getName()));
+      }
+    }
+  }
+
   // private function to the flow node with specified name
   private Flow getFlow(String flowName) {
     var flow = flows.get(flowName); // get the requested flow node
@@ -695,6 +973,81 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
     return index;
   }
 
+  /**
+   * @param flowName the flow to find the id of
+   * @return the id of the flow, or SymbolTable.NO_ID if there is no flow with that name
+   */
+  public int getFlowId(String flowName) {
+    return flowSymbols.getId(flowName);
+  }
+
+  /**
+   * @param nodeName the node to find the id of
+   * @return the id of the node, or SymbolTable.NO_ID if there is no node with that name
+   */
+  public int getNodeId(String nodeName) {
+    return nodeSymbols.getId(nodeName);
+  }
+
+  /**
+   * @param flowId the id of the flow
+   * @return the flow with the id
+   */
+  public Flow getFlow(int flowId) {
+    return flowsById.get(flowId);
+  }
+
+  /**
+   * @param nodeId the id of the node
+   * @return the node with the id
+   */
+  public Node getNode(int nodeId) {
+    return nodesById.get(nodeId);
+  }
+
+  /**
+   * @param flowId the id of the flow
+   * @return the name of the flow
+   */
+  public String getFlowName(int flowId) {
+    return flowSymbols.getName(flowId);
+  }
+
+  /**
+   * @param nodeId the id of the node
+   * @return the name of the node
+   */
+  public String getNodeName(int nodeId) {
+    return nodeSymbols.getName(nodeId);
+  }
+
+  /**
+   * @return the number of flows, so flow ids range from 0 to getNumFlows()-1
+   */
+  public int getNumFlows() {
+    return flowSymbols.size();
+  }
+
+  /**
+   * @return the number of nodes, so node ids range from 0 to getNumNodes()-1
+   */
+  public int getNumNodes() {
+    return nodeSymbols.size();
+  }
+
+  /**
+   * @param flowId the id of the flow
+   * @return the ids of the nodes in the flow, in the order of the flow specification
+   */
+  public int[] getNodeIdsInFlow(int flowId) {
+    var flowNodes = flowsById.get(flowId).nodes;
+    var ids = new int[flowNodes.size()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = flowNodes.get(i).getId();
+    }
+    return ids;
+  }
+
   /**
    * @param flowName the flow to get node names from
    * @return an empty array if the flow given doesn't exists, otherwise
@@ -727,11 +1080,35 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
    * @return the hyperPeriod of the graph
    */
   public Integer getHyperPeriod() {
-    var hyperPeriod = 1; // hyperPeriod is LCM of all periods. Initialize to 1
+    var hyperPeriod = getLongHyperPeriod();
+    if (hyperPeriod > Integer.MAX_VALUE) {
+      System.err.printf("\n\tERROR: the hyperPeriod %d is longer than %d time slots.\n",
+          hyperPeriod, Integer.MAX_VALUE);
+      System.err.printf("\tUsing a hyperPeriod of %d instead.\n", Integer.MAX_VALUE);
+      return Integer.MAX_VALUE;
+    }
+    return (int) hyperPeriod;
+  }
+
+  /**
+   * Calculates the hyperPeriod as a long, so that the LCM of co-prime periods does not
+   * overflow.
+   * 
+   * @return the hyperPeriod of the graph, or Long.MAX_VALUE if it is longer than that
+   */
+  public long getLongHyperPeriod() {
+    long hyperPeriod = 1; // hyperPeriod is LCM of all periods. Initialize to 1
     for (String flowName : getFlowNames()) {
-        // Find LCM of hyperPeriod so far and the current period, then update the
-        // hyperPeriod with that value
-      hyperPeriod = Utilities.lcm(hyperPeriod, getFlowPeriod(flowName)); 
+      var period = getFlowPeriod(flowName);
+      // Find LCM of hyperPeriod so far and the current period, then update the
+      // hyperPeriod with that value. gcd(hyperPeriod, period) = gcd(hyperPeriod % period,
+      // period), whose arguments fit in an int
+      var gcd = Utilities.gcd((int) (hyperPeriod % period), period);
+      try {
+        hyperPeriod = Math.multiplyExact(hyperPeriod / gcd, period);
+      } catch (ArithmeticException e) {
+        return Long.MAX_VALUE;
+      }
     }
     return hyperPeriod;
   }
@@ -772,6 +1149,7 @@ public class WorkLoad extends WorkLoadDescription implements ReliabilityParamete
    * @param edge the edge to be added
    */
   public void addEdge(String nodeName, Edge edge) {
+    checkNotFrozen();
     var node = nodes.get(nodeName); // get the node object
     node.addEdge(edge);
   }
@@ -42,6 +42,33 @@ public class WorkLoadDescription extends VisualizationObject {
     initialize(inputFileName);
   }
 
+  /**
+   * Creates a description of inputGraphString, a workload that was not read from a file.
+   *
+   * @param inputFileName the name the output files of the workload are based on
+   * @param inputGraphString the contents of a workload input file
+   */
+  WorkLoadDescription(String inputFileName, String inputGraphString) {
+    super(new FileManager(), EMPTY, INPUT_FILE_SUFFIX); // VisualizationObject constructor
+    this.fm = this.getFileManager();
+    this.inputGraphString = inputGraphString;
+    this.inputFileName = inputFileName;
+    this.description = new Description(inputGraphString);
+  }
+
+  /**
+   * Creates a copy of workLoadDescription without reading its input file again.
+   *
+   * @param workLoadDescription the description to copy
+   */
+  WorkLoadDescription(WorkLoadDescription workLoadDescription) {
+    super(new FileManager(), EMPTY, INPUT_FILE_SUFFIX); // VisualizationObject constructor
+    this.fm = this.getFileManager();
+    this.inputGraphString = workLoadDescription.inputGraphString;
+    this.inputFileName = workLoadDescription.inputFileName;
+    this.description = new Description(inputGraphString);
+  }
+
   @Override
   public Description visualization() {
     return description;
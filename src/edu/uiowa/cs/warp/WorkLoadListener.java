@@ -21,6 +21,7 @@ final class WorkLoadListener extends WARPBaseListener {
     
 	WorkLoad workLoad;
     String currentFlow; 
+    int currentFlowId; // id the workLoad assigned to currentFlow
     private WorkLoadListener(WorkLoad workLoad){
         this.workLoad = workLoad; // used to populate the workLoad as the input file is read
         this.currentFlow = new String();
@@ -63,37 +64,37 @@ final class WorkLoadListener extends WARPBaseListener {
 
     @Override public void enterFlowName(WARPParser.FlowNameContext ctx ) {
         currentFlow = ctx.getText();
-        workLoad.addFlow(currentFlow);
+        currentFlowId = workLoad.addFlow(currentFlow);
     }
    
     @Override public void exitPriority(WARPParser.PriorityContext ctx ) {
     	var priority = Integer.parseInt(ctx.getText());  // get priority from the AST
-        workLoad.setFlowPriority(currentFlow, priority);
+        workLoad.setFlowPriority(currentFlowId, priority);
     }
     
     @Override public void exitPeriod(WARPParser.PeriodContext ctx ) {
         var period = Integer.parseInt(ctx.getText());// get period from the AST
-        workLoad.setFlowPeriod(currentFlow, period);
+        workLoad.setFlowPeriod(currentFlowId, period);
     }
     
     @Override public void exitDeadline(WARPParser.DeadlineContext ctx ) {
         var deadline = Integer.parseInt(ctx.getText());// get deadline from the AST
-        workLoad.setFlowDeadline(currentFlow, deadline);
+        workLoad.setFlowDeadline(currentFlowId, deadline);
     }
     
     @Override public void exitPhase(WARPParser.PhaseContext ctx ) {
         var phase = Integer.parseInt(ctx.getText());// get phase from the AST
-        workLoad.setFlowPhase(currentFlow, phase);
+        workLoad.setFlowPhase(currentFlowId, phase);
     }
 
     @Override public void exitSrcNode(WARPParser.SrcNodeContext ctx ) {
         var nodeName = ctx.getText(); // get the src node name
-        workLoad.addNodeToFlow(currentFlow, nodeName);
+        workLoad.addNodeToFlow(currentFlowId, nodeName);
     }
 
     @Override public void exitSnkNode(WARPParser.SnkNodeContext ctx ) {
         var nodeName = ctx.getText(); // get the snk node name
-        workLoad.addNodeToFlow(currentFlow, nodeName);
+        workLoad.addNodeToFlow(currentFlowId, nodeName);
     }
         
     @Override public void exitFlow(WARPParser.FlowContext ctx ) {
@@ -2,6 +2,7 @@ package edu.uiowa.cs.warp;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -209,6 +210,20 @@ class WorkLoadTest {
 		assertEquals(expected,actual);
 	}
 	@Test
+	void testGetLongHyperPeriodOfCoprimePeriods() {
+		
+		//Co-prime periods whose LCM, 2^48 - 2^16, does not fit in an int
+		var flowNames = stressTestWorkLoad.getFlowNames();
+		for (String flowName : flowNames) {
+			stressTestWorkLoad.setFlowPeriod(flowName, 1);
+		}
+		stressTestWorkLoad.setFlowPeriod(flowNames[0], 65535);
+		stressTestWorkLoad.setFlowPeriod(flowNames[1], 65536);
+		stressTestWorkLoad.setFlowPeriod(flowNames[2], 65537);
+		assertEquals((1L << 48) - (1L << 16), stressTestWorkLoad.getLongHyperPeriod());
+		assertEquals(Integer.MAX_VALUE, stressTestWorkLoad.getHyperPeriod());
+	}
+	@Test
 	void testGetHyperPeriodDefault() {
 		
 		//Using the Example 3 file to see if the default is set correctly
@@ -252,4 +267,73 @@ class WorkLoadTest {
 		assertEquals(maxFL, actualFL);	
 	}
 
+	@Test
+	void testFlowAndNodeIds() {
+		//Ids are dense and follow the order flows and nodes were read from the file
+		var flowNames = stressTestWorkLoad.getFlowNames();
+		assertEquals(flowNames.length, stressTestWorkLoad.getNumFlows());
+		for (int id = 0; id < flowNames.length; id++) {
+			assertEquals(id, stressTestWorkLoad.getFlowId(flowNames[id]));
+			assertEquals(flowNames[id], stressTestWorkLoad.getFlowName(id));
+			assertEquals(stressTestWorkLoad.getFlowPeriod(flowNames[id]),
+					stressTestWorkLoad.getFlowPeriod(id));
+		}
+		assertEquals(stressTestWorkLoad.getNodes().size(), stressTestWorkLoad.getNumNodes());
+		for (int id = 0; id < stressTestWorkLoad.getNumNodes(); id++) {
+			var nodeName = stressTestWorkLoad.getNodeName(id);
+			assertEquals(id, stressTestWorkLoad.getNodeId(nodeName));
+			assertEquals(stressTestWorkLoad.getNodeIndex(nodeName), id);
+		}
+		assertEquals(SymbolTable.NO_ID, stressTestWorkLoad.getFlowId("No such flow"));
+	}
+
+	@Test
+	void testGetNodeIdsInFlow() {
+		var nodeNames = stressTestWorkLoad.getNodesInFlow("F9");
+		var nodeIds = stressTestWorkLoad.getNodeIdsInFlow(stressTestWorkLoad.getFlowId("F9"));
+		assertEquals(nodeNames.length, nodeIds.length);
+		for (int i = 0; i < nodeIds.length; i++) {
+			assertEquals(nodeNames[i], stressTestWorkLoad.getNodeName(nodeIds[i]));
+		}
+	}
+
+	@Test
+	void testFrozenWorkLoadIsShared() {
+		//A frozen WorkLoad rejects changes, but programs can still be built from it
+		stressTestWorkLoad.setFlowsInPriorityOrder();
+		var priorityOrder = new ArrayList<>(stressTestWorkLoad.getFlowNamesInPriorityOrder());
+		stressTestWorkLoad.freeze();
+		assertTrue(stressTestWorkLoad.isFrozen());
+		assertThrows(IllegalStateException.class, () -> stressTestWorkLoad.setFlowsInRMorder());
+		assertThrows(IllegalStateException.class, () -> stressTestWorkLoad.setFlowPhase("F9", 1));
+
+		var rm = new Program(stressTestWorkLoad, 2, SystemAttributes.ScheduleChoices.RM);
+		var dm = new Program(stressTestWorkLoad, 2, SystemAttributes.ScheduleChoices.DM);
+		assertEquals(stressTestWorkLoad.getFlowNamesSortedByPeriod(), rm.getFlowNamesInPriorityOrder());
+		assertEquals(stressTestWorkLoad.getFlowNamesSortedByDeadline(), dm.getFlowNamesInPriorityOrder());
+		assertEquals(priorityOrder, stressTestWorkLoad.getFlowNamesInPriorityOrder());
+	}
+
+	@Test
+	void testCopyWithOtherParameters() {
+		//A copy with other parameters has the flows of the file read with those parameters
+		var copy = new WorkLoad(stressTestWorkLoad, 0, 0.8, 0.999);
+		var parsed = new WorkLoad(0, 0.8, 0.999, "StressTest.txt");
+		assertEquals(parsed.getName(), copy.getName());
+		assertArrayEquals(parsed.getFlowNames(), copy.getFlowNames());
+		assertArrayEquals(parsed.getNodeNamesOrderedAlphabetically(), copy.getNodeNamesOrderedAlphabetically());
+		for (String flowName : parsed.getFlowNames()) {
+			assertEquals(parsed.getFlowPeriod(flowName), copy.getFlowPeriod(flowName));
+			assertEquals(parsed.getFlowDeadline(flowName), copy.getFlowDeadline(flowName));
+			assertArrayEquals(parsed.getNodesInFlow(flowName), copy.getNodesInFlow(flowName));
+			assertArrayEquals(parsed.getNumTxAttemptsPerLink(flowName), copy.getNumTxAttemptsPerLink(flowName));
+			assertEquals(parsed.getTotalTxAttemptsInFlow(flowName), copy.getTotalTxAttemptsInFlow(flowName));
+		}
+		assertEquals(0.999, copy.getE2e());
+		//The flows of the original keep their transmission costs
+		assertEquals(new WorkLoad(0.9, 0.99, "StressTest.txt").getTotalTxAttemptsInFlow("F9"),
+				stressTestWorkLoad.getTotalTxAttemptsInFlow("F9"));
+		assertNotEquals(stressTestWorkLoad.getTotalTxAttemptsInFlow("F9"), copy.getTotalTxAttemptsInFlow("F9"));
+	}
+
 }